@@ -0,0 +1,160 @@
+package com.prestek.people.model;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * Benchmark of inserting credit offers in bulk with the mapping the entities used
+ * before (IDENTITY ids, every insert sent on its own) and the current one (pooled
+ * sequence ids, inserts sent in JDBC batches). The database is reached over TCP so
+ * every statement pays a network round trip, as it does against PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public String idGeneration;
+
+    @Param({"1000"})
+    public int rows;
+
+    private Server server;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(CreditOffer.class)
+                .addAnnotatedClass(Application.class)
+                .addAnnotatedClass(IdentityCreditOffer.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bulk-insert;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.GLOBALLY_QUOTED_IDENTIFIERS, "true")
+                .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int insertCreditOffers() {
+        boolean identity = "IDENTITY".equals(idGeneration);
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 1; i <= rows; i++) {
+                session.persist(identity ? newIdentityCreditOffer(i) : newCreditOffer(i));
+                if (i % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+        return rows;
+    }
+
+    private CreditOffer newCreditOffer(int index) {
+        return CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco " + index)
+                .description("Personal loan")
+                .isActive(true)
+                .build();
+    }
+
+    private IdentityCreditOffer newIdentityCreditOffer(int index) {
+        IdentityCreditOffer offer = new IdentityCreditOffer();
+        offer.amount = new BigDecimal("50000.00");
+        offer.interestRate = new BigDecimal("12.50");
+        offer.termMonths = 24;
+        offer.financialEntity = "Banco " + index;
+        offer.description = "Personal loan";
+        offer.isActive = true;
+        offer.createdAt = LocalDateTime.now();
+        offer.updatedAt = offer.createdAt;
+        return offer;
+    }
+
+    /*
+     * Credit offer columns mapped with the IDENTITY ids the entities used before
+     */
+    @Entity
+    @Table(name = "identity_credit_offers")
+    public static class IdentityCreditOffer {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(nullable = false)
+        BigDecimal amount;
+
+        @Column(nullable = false)
+        BigDecimal interestRate;
+
+        @Column(nullable = false)
+        Integer termMonths;
+
+        @Column(nullable = false)
+        String financialEntity;
+
+        String description;
+
+        String requirements;
+
+        @Column(nullable = false)
+        Boolean isActive;
+
+        LocalDateTime createdAt;
+
+        LocalDateTime updatedAt;
+    }
+}
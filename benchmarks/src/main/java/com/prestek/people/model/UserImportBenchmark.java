@@ -0,0 +1,148 @@
+package com.prestek.people.model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Benchmark of creating users the way UserService.createUser does (email check, document
+ * check and insert in one transaction per user) against the way UserImportService does
+ * (two set-based duplicate queries and one batched insert per chunk). The database is
+ * reached over TCP so every statement pays a network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserImportBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int CHUNK_SIZE = 500;
+
+    @Param({"PER_USER", "CHUNKED"})
+    public String path;
+
+    @Param({"1000"})
+    public int users;
+
+    private Server server;
+    private SessionFactory sessionFactory;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(CreditOffer.class)
+                .addAnnotatedClass(Application.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:user-import;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.GLOBALLY_QUOTED_IDENTIFIERS, "true")
+                .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int importUsers() {
+        // Every invocation uses fresh emails so no user is rejected as a duplicate
+        int first = run++ * users;
+        return "PER_USER".equals(path) ? perUser(first) : chunked(first);
+    }
+
+    private int perUser(int first) {
+        int created = 0;
+        for (int i = first; i < first + users; i++) {
+            try (Session session = sessionFactory.openSession()) {
+                session.beginTransaction();
+                User user = newUser(i);
+                boolean emailTaken = session.createQuery("SELECT count(u) FROM User u WHERE u.email = :email", Long.class)
+                        .setParameter("email", user.getEmail()).getSingleResult() > 0;
+                boolean documentTaken = session.createQuery("SELECT count(u) FROM User u WHERE u.documentNumber = :document", Long.class)
+                        .setParameter("document", user.getDocumentNumber()).getSingleResult() > 0;
+                if (!emailTaken && !documentTaken) {
+                    session.persist(user);
+                    created++;
+                }
+                session.getTransaction().commit();
+            }
+        }
+        return created;
+    }
+
+    private int chunked(int first) {
+        int created = 0;
+        for (int start = first; start < first + users; start += CHUNK_SIZE) {
+            List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = start; i < Math.min(start + CHUNK_SIZE, first + users); i++) {
+                chunk.add(newUser(i));
+            }
+            try (Session session = sessionFactory.openSession()) {
+                session.beginTransaction();
+                Set<String> emails = new HashSet<>(session.createQuery("SELECT u.email FROM User u WHERE u.email IN :emails", String.class)
+                        .setParameterList("emails", chunk.stream().map(User::getEmail).toList()).getResultList());
+                Set<String> documents = new HashSet<>(session.createQuery("SELECT u.documentNumber FROM User u WHERE u.documentNumber IN :documents", String.class)
+                        .setParameterList("documents", chunk.stream().map(User::getDocumentNumber).toList()).getResultList());
+                for (User user : chunk) {
+                    if (!emails.contains(user.getEmail()) && !documents.contains(user.getDocumentNumber())) {
+                        session.persist(user);
+                        created++;
+                    }
+                }
+                session.flush();
+                session.clear();
+                session.getTransaction().commit();
+            }
+        }
+        return created;
+    }
+
+    private User newUser(int index) {
+        return User.builder()
+                .firstName("User")
+                .lastName(String.valueOf(index))
+                .email("user" + index + "@example.com")
+                .phone("+1234567890")
+                .documentNumber("DOC-" + index)
+                .monthlyIncome(5000.0)
+                .monthlyExpenses(2000.0)
+                .creditScore(700)
+                .employmentStatus("EMPLOYED")
+                .build();
+    }
+}
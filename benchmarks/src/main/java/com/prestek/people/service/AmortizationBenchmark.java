@@ -0,0 +1,74 @@
+package com.prestek.people.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Benchmark of the long-cents amortization schedule against a naive implementation
+ * that builds a list of BigDecimal rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("50000000.00");
+    private static final BigDecimal INTEREST_RATE = new BigDecimal("18.5");
+
+    @Param({"12", "60", "360"})
+    public int termMonths;
+
+    private AmortizationSchedule schedule;
+
+    @Setup
+    public void setUp() {
+        schedule = AmortizationSchedule.of(1L, AMOUNT, INTEREST_RATE, termMonths);
+    }
+
+    @Benchmark
+    public long scaledLong(Blackhole blackhole) {
+        return schedule.forEachRow((month, payment, principal, interest, balance) -> {
+            blackhole.consume(payment);
+            blackhole.consume(principal);
+            blackhole.consume(interest);
+            blackhole.consume(balance);
+        });
+    }
+
+    @Benchmark
+    public List<BigDecimal[]> naiveBigDecimal() {
+        BigDecimal monthlyRate = INTEREST_RATE.divide(BigDecimal.valueOf(1200), MathContext.DECIMAL64);
+        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(termMonths, MathContext.DECIMAL64);
+        BigDecimal installment = AMOUNT.multiply(monthlyRate).multiply(factor)
+                .divide(factor.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+        List<BigDecimal[]> rows = new ArrayList<>(termMonths);
+        BigDecimal balance = AMOUNT;
+        for (int month = 1; month <= termMonths; month++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principal = month == termMonths ? balance : installment.subtract(interest).min(balance);
+            balance = balance.subtract(principal);
+            rows.add(new BigDecimal[] {BigDecimal.valueOf(month), principal.add(interest), principal, interest, balance});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,106 @@
+package com.prestek.people.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.UserDto;
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+
+/*
+ * Benchmark of the entity to DTO mappers used by every read endpoint
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private UserService userService;
+    private CreditOfferService creditOfferService;
+    private ApplicationService applicationService;
+
+    private User user;
+    private CreditOffer creditOffer;
+    private Application application;
+
+    @Setup
+    public void setUp() {
+        // Repositories are not touched by the mappers
+        userService = new UserService(null, null, null, null);
+        creditOfferService = new CreditOfferService(null, null, null);
+        applicationService = new ApplicationService(null, null, null, null, null, null);
+
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .documentNumber("12345678")
+                .monthlyIncome(5000.0)
+                .monthlyExpenses(3000.0)
+                .creditScore(750)
+                .employmentStatus("EMPLOYED")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        creditOffer = CreditOffer.builder()
+                .id(1L)
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan with competitive rates")
+                .requirements("Minimum income: $2000")
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        application = Application.builder()
+                .id(1L)
+                .status(ApplicationStatus.UNDER_REVIEW)
+                .applicationDate(now)
+                .reviewDate(now)
+                .notes("Additional documentation provided")
+                .createdAt(now)
+                .updatedAt(now)
+                .user(user)
+                .creditOffer(creditOffer)
+                .build();
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userService.convertToDto(user);
+    }
+
+    @Benchmark
+    public CreditOfferDto creditOfferToDto() {
+        return creditOfferService.convertToDto(creditOffer);
+    }
+
+    @Benchmark
+    public ApplicationDto applicationToDto() {
+        return applicationService.convertToDto(application);
+    }
+}
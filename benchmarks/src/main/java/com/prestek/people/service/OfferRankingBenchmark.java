@@ -0,0 +1,84 @@
+package com.prestek.people.service;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.OfferEvaluationDto;
+import com.prestek.people.model.User;
+import com.prestek.people.service.ActiveCreditOfferCatalog.Snapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Benchmark of ranking a catalog snapshot for one user, sequentially and in parallel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfferRankingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int offerCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private OfferEligibilityService offerEligibilityService;
+    private Snapshot snapshot;
+    private User user;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // Repositories are not touched when ranking a snapshot directly
+        offerEligibilityService = new OfferEligibilityService(null, null);
+        setField("maxDebtToIncome", 0.4);
+        setField("parallelThreshold", parallel ? 0 : Integer.MAX_VALUE);
+
+        Random random = new Random(42);
+        List<CreditOfferDto> offers = new ArrayList<>(offerCount);
+        for (long id = 1; id <= offerCount; id++) {
+            offers.add(CreditOfferDto.builder()
+                    .id(id)
+                    .financialEntity("Entity " + (id % 40))
+                    .amount(BigDecimal.valueOf(1_000_000L + random.nextInt(99_000_000)))
+                    .interestRate(BigDecimal.valueOf(800 + random.nextInt(2200), 2))
+                    .termMonths(6 + random.nextInt(115))
+                    .isActive(true)
+                    .build());
+        }
+        ActiveCreditOfferCatalog catalog = new ActiveCreditOfferCatalog(new SimpleMeterRegistry());
+        snapshot = catalog.install(catalog.nextGeneration(), offers);
+        user = User.builder().id(1L).monthlyIncome(6_000_000.0).monthlyExpenses(2_500_000.0).build();
+    }
+
+    @Benchmark
+    public List<OfferEvaluationDto> rankOffers() {
+        return offerEligibilityService.rank(snapshot, user, 50);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = OfferEligibilityService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(offerEligibilityService, value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.prestek.people.config;
+
+import java.security.Principal;
+
+/*
+ * Principal of a request authenticated with a Clerk token: the token subject and, when the
+ * session token template includes it, the email claim used to link the subject to a user
+ */
+public record ClerkPrincipal(String subject, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
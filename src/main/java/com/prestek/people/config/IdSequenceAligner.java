@@ -0,0 +1,77 @@
+package com.prestek.people.config;
+
+import java.util.List;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.prestek.people.model.Application;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Class that moves each id sequence past the ids already stored in its table.
+ * Rows inserted while ids came from identity columns would otherwise collide
+ * with the ids handed out by a sequence that starts at 1. Runs while the context
+ * starts, before the web server accepts requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAligner implements InitializingBean {
+    
+    private static final List<Class<?>> SEQUENCED_ENTITIES = List.of(User.class, CreditOffer.class, Application.class);
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void afterPropertiesSet() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (Class<?> entity : SEQUENCED_ENTITIES) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(entity);
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator) {
+                align(sessionFactory, persister, generator.getDatabaseStructure());
+            }
+        }
+    }
+    
+    /*
+     * Method that restarts a sequence when its next block of ids overlaps the stored ids.
+     * The pooled optimizer hands out the ids up to each sequence value, so the next value
+     * must be at least a full increment above the largest stored id.
+     *
+     * @param sessionFactory, the Hibernate session factory
+     * @param persister, the persister of the entity using the sequence
+     * @param sequence, the sequence structure with its name and increment
+     */
+    private void align(SessionFactoryImplementor sessionFactory, AbstractEntityPersister persister, DatabaseStructure sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + persister.getIdentifierColumnNames()[0] + ") FROM "
+                + persister.getTableName(), Long.class);
+        if (maxId == null) {
+            return;
+        }
+        
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        String sequenceName = sessionFactory.getSqlStringGenerationContext().format(sequence.getPhysicalName());
+        Long nextValue = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+        int increment = sequence.getIncrementSize();
+        if (nextValue != null && nextValue - increment >= maxId) {
+            return;
+        }
+        
+        long restartWith = maxId + increment + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequenceName + " RESTART WITH " + restartWith);
+        log.info("Restarted sequence {} at {} to clear the stored ids of {}", sequenceName, restartWith, persister.getTableName());
+    }
+}
@@ -0,0 +1,217 @@
+package com.prestek.people.config;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Class that keeps the Clerk JWKS in memory and refreshes it in the background.
+ * Request threads always read the current key set; only one refresh runs at a
+ * time, unknown key ids trigger a rate limited refresh, and the previous keys
+ * keep being served when a refresh fails. After a failure a single retry is
+ * scheduled, backing off exponentially up to the refresh interval. A verifier
+ * is built once per key id when the key set is loaded, so the request path
+ * never allocates one.
+ */
+@Slf4j
+public class JwksKeyProvider implements AutoCloseable {
+
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final String jwksUrl;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final Duration timeout;
+    private final Duration maxWait;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicReference<CompletableFuture<Map<String, JWSVerifier>>> inFlight = new AtomicReference<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    private volatile Map<String, JWSVerifier> verifiers;
+    private volatile long lastRefreshAttempt = 0;
+
+    // Only touched by load, which always runs on the single scheduler thread
+    private ScheduledFuture<?> pendingRetry;
+    private int consecutiveFailures = 0;
+
+    public JwksKeyProvider(String jwksUrl, Duration refreshInterval, Duration minRefreshInterval,
+            Duration timeout, Duration maxWait) {
+        this.jwksUrl = jwksUrl;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.timeout = timeout;
+        this.maxWait = maxWait;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * Method that loads the key set in the background and schedules the periodic refresh
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Method that resolves the verifier for a signing key by its key id
+     *
+     * @param keyId, the kid header of the token
+     * @return JWSVerifier, the prebuilt verifier or null if the key is unknown
+     */
+    public JWSVerifier getVerifier(String keyId) {
+        Map<String, JWSVerifier> current = verifiers;
+        JWSVerifier verifier = current != null && keyId != null ? current.get(keyId) : null;
+        if (verifier != null || keyId == null) {
+            return verifier;
+        }
+
+        // Unknown kid: the keys may have been rotated, join or trigger a rate limited refresh
+        CompletableFuture<Map<String, JWSVerifier>> refresh = inFlight.get();
+        if (refresh == null) {
+            if (System.currentTimeMillis() - lastRefreshAttempt < minRefreshInterval.toMillis()) {
+                return null;
+            }
+            refresh = refresh();
+        }
+
+        try {
+            return refresh.get(maxWait.toMillis(), TimeUnit.MILLISECONDS).get(keyId);
+        } catch (TimeoutException | ExecutionException e) {
+            current = verifiers;
+            return current != null ? current.get(keyId) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /*
+     * Method that starts a refresh unless one is already running
+     *
+     * @return CompletableFuture, the refresh every caller waits on
+     */
+    CompletableFuture<Map<String, JWSVerifier>> refresh() {
+        CompletableFuture<Map<String, JWSVerifier>> created = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Map<String, JWSVerifier>> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (inFlight.compareAndSet(null, created)) {
+                break;
+            }
+        }
+
+        lastRefreshAttempt = System.currentTimeMillis();
+        try {
+            scheduler.execute(() -> load(created));
+        } catch (RuntimeException e) {
+            inFlight.compareAndSet(created, null);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public int getFetchCount() {
+        return fetchCount.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void load(CompletableFuture<Map<String, JWSVerifier>> result) {
+        Map<String, JWSVerifier> loaded = null;
+        Exception failure = null;
+        try {
+            loaded = buildVerifiers(fetch());
+            verifiers = loaded;
+            log.debug("Loaded {} signing keys from {}", loaded.size(), jwksUrl);
+            consecutiveFailures = 0;
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+                pendingRetry = null;
+            }
+        } catch (Exception e) {
+            failure = e;
+            consecutiveFailures++;
+            log.warn("Could not refresh JWKS from {}, keeping current keys: {}", jwksUrl, e.getMessage());
+            scheduleRetry();
+        }
+
+        // Clear the in-flight marker first so callers woken by the result can start a new refresh
+        inFlight.compareAndSet(result, null);
+        if (failure == null) {
+            result.complete(loaded);
+        } else {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    /*
+     * Method that schedules a refresh after a failed one unless a retry is already pending, waiting
+     * twice as long after every consecutive failure and never longer than the refresh interval
+     */
+    private void scheduleRetry() {
+        if (scheduler.isShutdown() || (pendingRetry != null && !pendingRetry.isDone())) {
+            return;
+        }
+        long baseMillis = Math.max(minRefreshInterval.toMillis(), MIN_RETRY_DELAY.toMillis());
+        long delayMillis = Math.min(baseMillis << Math.min(consecutiveFailures - 1, 20), refreshInterval.toMillis());
+        log.debug("Retrying JWKS refresh in {} ms after {} consecutive failures", delayMillis, consecutiveFailures);
+        pendingRetry = scheduler.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Map<String, JWSVerifier> buildVerifiers(JWKSet jwkSet) throws JOSEException {
+        Map<String, JWSVerifier> built = new HashMap<>();
+        for (JWK jwk : jwkSet.getKeys()) {
+            if (jwk.getKeyID() == null || !(jwk instanceof RSAKey rsaKey)) {
+                log.warn("Ignoring JWKS key without kid or of unsupported type: {}", jwk.getKeyType());
+                continue;
+            }
+            built.put(jwk.getKeyID(), new RSASSAVerifier(rsaKey));
+        }
+        return Map.copyOf(built);
+    }
+
+    private JWKSet fetch() throws Exception {
+        fetchCount.incrementAndGet();
+        URL url = URI.create(jwksUrl).toURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout((int) timeout.toMillis());
+        connection.setReadTimeout((int) timeout.toMillis());
+
+        try (InputStream inputStream = connection.getInputStream()) {
+            return JWKSet.load(inputStream);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
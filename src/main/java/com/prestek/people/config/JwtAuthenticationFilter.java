@@ -0,0 +1,121 @@
+package com.prestek.people.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.prestek.people.config.VerifiedTokenCache.VerifiedToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Filter that authenticates requests carrying a Clerk issued bearer token.
+ * Verifiers come prebuilt from the JwksKeyProvider, role claims are mapped
+ * through the interned RoleAuthorities, and tokens whose signature has already
+ * been verified are served from the VerifiedTokenCache until they expire.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final String clerkIssuer;
+    private final JwksKeyProvider keyProvider;
+    private final VerifiedTokenCache tokenCache;
+    private final RoleAuthorities roleAuthorities = new RoleAuthorities();
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public JwtAuthenticationFilter(String clerkIssuer, JwksKeyProvider keyProvider, VerifiedTokenCache tokenCache) {
+        this.clerkIssuer = clerkIssuer;
+        this.keyProvider = keyProvider;
+        this.tokenCache = tokenCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String authHeader = request.getHeader("Authorization");
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            String token = authHeader.substring(7);
+            String cacheKey = tokenCache.keyFor(token);
+            VerifiedToken verifiedToken = tokenCache.get(cacheKey);
+
+            if (verifiedToken == null) {
+                SignedJWT signedJWT = SignedJWT.parse(token);
+                JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+
+                Date expirationTime = claims.getExpirationTime();
+                String issuer = claims.getIssuer();
+
+                if (expirationTime == null || expirationTime.before(Date.from(Instant.now()))) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expired");
+                    return;
+                }
+
+                if (!clerkIssuer.equals(issuer)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid issuer");
+                    return;
+                }
+
+                String keyId = signedJWT.getHeader().getKeyID();
+                JWSVerifier verifier = keyProvider.getVerifier(keyId);
+
+                if (verifier == null) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid key ID");
+                    return;
+                }
+
+                if (!signedJWT.verify(verifier)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid signature");
+                    return;
+                }
+
+                String subject = claims.getSubject();
+
+                // Extraer rol del token
+                Object roleClaim = claims.getClaim("role");
+                List<GrantedAuthority> authorities = roleAuthorities.fromClaim(roleClaim);
+
+                if (roleClaim == null) {
+                    log.debug("No role claim found in token for subject {}", subject);
+                }
+
+                // Optional claim of the session token template, links the subject to a user on first use
+                String email = claims.getClaim("email") instanceof String claim ? claim : null;
+
+                verifiedToken = new VerifiedToken(subject, email, authorities, expirationTime.getTime());
+                tokenCache.put(cacheKey, verifiedToken);
+            }
+
+            UsernamePasswordAuthenticationToken authentication
+                    = new UsernamePasswordAuthenticationToken(verifiedToken.getPrincipal(), null, verifiedToken.getAuthorities());
+            authentication.setDetails(detailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
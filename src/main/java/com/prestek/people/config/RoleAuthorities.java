@@ -0,0 +1,76 @@
+package com.prestek.people.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/*
+ * Class that maps the role claim of a token to Spring authorities.
+ * Mappings are interned per distinct claim value, so tokens carrying the
+ * same roles share one immutable authority list.
+ */
+public class RoleAuthorities {
+
+    private static final int MAX_INTERNED_CLAIMS = 1024;
+
+    private final Map<Object, List<GrantedAuthority>> interned = new ConcurrentHashMap<>();
+
+    /*
+     * Method that resolves the authorities for a role claim
+     *
+     * @param roleClaim, the raw role claim, either a String or a List of roles
+     * @return List, the immutable authorities, empty if the claim is missing or unsupported
+     */
+    public List<GrantedAuthority> fromClaim(Object roleClaim) {
+        if (!(roleClaim instanceof String) && !(roleClaim instanceof List)) {
+            return Collections.emptyList();
+        }
+
+        List<GrantedAuthority> authorities = interned.get(roleClaim);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = toAuthorities(roleClaim);
+        if (interned.size() < MAX_INTERNED_CLAIMS && !containsNull(roleClaim)) {
+            Object key = roleClaim instanceof List<?> roles ? List.copyOf(roles) : roleClaim;
+            List<GrantedAuthority> existing = interned.putIfAbsent(key, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    private List<GrantedAuthority> toAuthorities(Object roleClaim) {
+        if (roleClaim instanceof String role) {
+            return List.of(toAuthority(role));
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : (List<?>) roleClaim) {
+            if (role != null) {
+                authorities.add(toAuthority(role.toString()));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private boolean containsNull(Object roleClaim) {
+        if (roleClaim instanceof List<?> roles) {
+            for (Object role : roles) {
+                if (role == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private GrantedAuthority toAuthority(String role) {
+        return new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT));
+    }
+}
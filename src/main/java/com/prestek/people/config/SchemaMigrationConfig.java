@@ -0,0 +1,31 @@
+package com.prestek.people.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Configuration of the schema migrations: the scripts in db/migration define the schema, and the
+ * entity manager factory, with every repository, is only built once they ran. Hibernate neither
+ * generates nor inspects the schema (ddl-auto=none).
+ */
+@Configuration
+@ConditionalOnProperty(name = "schema.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema,
+                                         @Value("${schema.migrations.locations:classpath:db/migration/*.sql}") String locations) {
+        return new SchemaMigrator(dataSource, schema, locations);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+    }
+}
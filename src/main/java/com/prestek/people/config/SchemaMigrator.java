@@ -0,0 +1,229 @@
+package com.prestek.people.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Class that brings the database schema up to date while the context starts. Versioned SQL
+ * scripts named V<version>__<description>.sql run once each, in version order, and are recorded
+ * with a checksum in the schema_history table; a recorded script that changed afterwards stops
+ * the start. Instances starting together migrate one after the other, holding the row of the
+ * schema_history_lock table. Scripts write ${schema} before every object name, replaced by the
+ * quoted default schema and a dot, or by nothing when no default schema is configured.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMigrator implements InitializingBean {
+
+    static final String HISTORY_TABLE = "schema_history";
+    static final String LOCK_TABLE = "schema_history_lock";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String schema;
+    private final String locations;
+
+    @Override
+    public void afterPropertiesSet() throws IOException, SQLException {
+        migrate();
+    }
+
+    /*
+     * Method that runs the scripts not recorded in the history yet, each with its history row in one
+     * transaction, so a failing script leaves no record and runs again on the next start. The lock
+     * row is held on a connection of its own until every script ran.
+     *
+     * @return int, the number of scripts run
+     * @throws IllegalStateException if two scripts share a version, a script name has no version
+     * or a recorded script changed since it ran
+     */
+    public int migrate() throws IOException, SQLException {
+        String prefix = schema == null || schema.isBlank() ? "" : "\"" + schema + "\".";
+        TreeMap<Integer, Resource> scripts = scripts();
+        try {
+            createTables(prefix);
+        } catch (SQLException e) {
+            // Another instance created the tables at the same moment, they exist now
+            log.debug("Creating the schema history tables raced with another instance: {}", e.getMessage());
+            createTables(prefix);
+        }
+
+        int applied = 0;
+        try (Connection lock = dataSource.getConnection();
+             Connection connection = dataSource.getConnection()) {
+            boolean lockAutoCommit = lock.getAutoCommit();
+            lock.setAutoCommit(false);
+            try {
+                acquireLock(lock, prefix);
+                Map<Integer, Integer> recorded = recordedChecksums(connection, prefix);
+                verifyChecksums(connection, prefix, scripts, recorded);
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (var script : scripts.entrySet()) {
+                        if (recorded.containsKey(script.getKey())) {
+                            continue;
+                        }
+                        String description = description(script.getValue());
+                        log.info("Migrating schema to version {}: {}", script.getKey(), description);
+                        String content = content(script.getValue());
+                        String sql = content.replace("${schema}", prefix);
+                        try {
+                            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8)));
+                            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + prefix + "\"" + HISTORY_TABLE
+                                    + "\" (\"version\", \"description\", \"applied_at\", \"checksum\") VALUES (?, ?, ?, ?)")) {
+                                insert.setInt(1, script.getKey());
+                                insert.setString(2, description);
+                                insert.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                                insert.setInt(4, checksum(content));
+                                insert.executeUpdate();
+                            }
+                            connection.commit();
+                        } catch (RuntimeException | SQLException e) {
+                            connection.rollback();
+                            throw e;
+                        }
+                        applied++;
+                    }
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } finally {
+                lock.rollback();
+                lock.setAutoCommit(lockAutoCommit);
+            }
+        }
+        log.info("Schema is at version {}, {} migrations applied", scripts.isEmpty() ? 0 : scripts.lastKey(), applied);
+        return applied;
+    }
+
+    private TreeMap<Integer, Resource> scripts() throws IOException {
+        TreeMap<Integer, Resource> scripts = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locations)) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!name.matches()) {
+                throw new IllegalStateException("Migration script is not named V<version>__<description>.sql: " + resource.getFilename());
+            }
+            Resource previous = scripts.put(Integer.valueOf(name.group(1)), resource);
+            if (previous != null) {
+                throw new IllegalStateException("Migration scripts share version " + name.group(1) + ": "
+                        + previous.getFilename() + " and " + resource.getFilename());
+            }
+        }
+        return scripts;
+    }
+
+    /*
+     * Method that creates the schema, the history table and the lock table with its single row.
+     * History tables from before checksums were recorded get the column added.
+     *
+     * @param prefix, the quoted schema and a dot, or an empty string
+     */
+    private void createTables(String prefix) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!prefix.isEmpty()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS \"" + schema + "\"");
+            }
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "\"" + HISTORY_TABLE + "\" ("
+                    + "\"version\" integer NOT NULL, \"description\" varchar(255) NOT NULL, "
+                    + "\"applied_at\" timestamp NOT NULL, \"checksum\" integer, PRIMARY KEY (\"version\"))");
+            statement.execute("ALTER TABLE " + prefix + "\"" + HISTORY_TABLE + "\" ADD COLUMN IF NOT EXISTS \"checksum\" integer");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + prefix + "\"" + LOCK_TABLE + "\" (\"id\" integer NOT NULL, PRIMARY KEY (\"id\"))");
+            statement.execute("INSERT INTO " + prefix + "\"" + LOCK_TABLE + "\" (\"id\") SELECT 1 WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM " + prefix + "\"" + LOCK_TABLE + "\" WHERE \"id\" = 1)");
+        }
+    }
+
+    // Waits for an instance migrating meanwhile, the row stays locked until the transaction of the connection ends
+    private void acquireLock(Connection lock, String prefix) throws SQLException {
+        try (Statement statement = lock.createStatement();
+             ResultSet row = statement.executeQuery("SELECT \"id\" FROM " + prefix + "\"" + LOCK_TABLE + "\" WHERE \"id\" = 1 FOR UPDATE")) {
+            if (!row.next()) {
+                throw new IllegalStateException("Schema history lock row is missing from " + LOCK_TABLE);
+            }
+        }
+    }
+
+    private Map<Integer, Integer> recordedChecksums(Connection connection, String prefix) throws SQLException {
+        Map<Integer, Integer> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT \"version\", \"checksum\" FROM " + prefix + "\"" + HISTORY_TABLE + "\"")) {
+            while (rows.next()) {
+                int checksum = rows.getInt(2);
+                checksums.put(rows.getInt(1), rows.wasNull() ? null : checksum);
+            }
+        }
+        return checksums;
+    }
+
+    /*
+     * Method that compares the recorded scripts with the scripts on the classpath. Versions recorded
+     * before checksums existed take the checksum of the current script.
+     *
+     * @throws IllegalStateException if a recorded script changed since it ran
+     */
+    private void verifyChecksums(Connection connection, String prefix, TreeMap<Integer, Resource> scripts,
+                                 Map<Integer, Integer> recorded) throws IOException, SQLException {
+        for (var entry : recorded.entrySet()) {
+            Resource script = scripts.get(entry.getKey());
+            if (script == null) {
+                continue;
+            }
+            int checksum = checksum(content(script));
+            if (entry.getValue() == null) {
+                try (PreparedStatement update = connection.prepareStatement("UPDATE " + prefix + "\"" + HISTORY_TABLE
+                        + "\" SET \"checksum\" = ? WHERE \"version\" = ?")) {
+                    update.setInt(1, checksum);
+                    update.setInt(2, entry.getKey());
+                    update.executeUpdate();
+                }
+            } else if (entry.getValue() != checksum) {
+                throw new IllegalStateException("Migration script " + script.getFilename() + " changed after it was applied: checksum "
+                        + checksum + ", recorded " + entry.getValue());
+            }
+        }
+    }
+
+    private String content(Resource script) throws IOException {
+        return script.getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    // CRC32 of the script without carriage returns, so a checkout with other line endings matches
+    private int checksum(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.replace("\r", "").getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private String description(Resource script) {
+        Matcher name = SCRIPT_NAME.matcher(script.getFilename());
+        name.matches();
+        return name.group(2).replace('_', ' ');
+    }
+}
@@ -0,0 +1,80 @@
+package com.prestek.people.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+
+/*
+ * Configuration of the Hibernate second-level cache: a Caffeine backed JCache manager whose
+ * regions are created here with the size limits and TTLs from application.properties, and
+ * handed to Hibernate so it does not fall back to the JVM-wide default manager. Users and
+ * credit offers are cached, applications change too often to be worth it.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${second-level-cache.users.max-entries:10000}")
+    private long userMaxEntries;
+
+    @Value("${second-level-cache.users.ttl-ms:600000}")
+    private long userTtlMs;
+
+    @Value("${second-level-cache.credit-offers.max-entries:10000}")
+    private long creditOfferMaxEntries;
+
+    @Value("${second-level-cache.credit-offers.ttl-ms:600000}")
+    private long creditOfferTtlMs;
+
+    @Value("${second-level-cache.query-results.max-entries:1000}")
+    private long queryResultMaxEntries;
+
+    @Value("${second-level-cache.query-results.ttl-ms:300000}")
+    private long queryResultTtlMs;
+
+    /*
+     * Method that creates the cache manager with one region per cached entity plus the query regions.
+     * Each application context gets its own manager, so contexts never share cached rows
+     *
+     * @return CacheManager, the manager Hibernate stores its regions in
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, region(userMaxEntries, userTtlMs));
+        cacheManager.createCache(CreditOffer.CACHE_REGION, region(creditOfferMaxEntries, creditOfferTtlMs));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryResultMaxEntries, queryResultTtlMs));
+        // Last change per table, checked against cached query results: must never be evicted
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, long ttlMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,111 @@
+package com.prestek.people.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/*
+ * Bounded cache of bearer tokens whose signature has already been verified.
+ * Entries are keyed by the SHA-256 digest of the raw token and expire when the
+ * token's exp claim passes. Once full, Caffeine evicts the entry least likely to
+ * be used again; expiry and eviction run off the request thread.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final int maxEntries;
+    private final Cache<String, VerifiedToken> tokens;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxEntries))
+                .expireAfter(Expiry.<String, VerifiedToken>creating((key, token) ->
+                        Duration.ofMillis(Math.max(0, token.getExpiresAtMillis() - System.currentTimeMillis()))))
+                .build();
+    }
+
+    /*
+     * Method that computes the cache key for a raw token
+     *
+     * @param token, the raw bearer token
+     * @return String, the Base64 encoded SHA-256 digest of the token
+     */
+    public String keyFor(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    public VerifiedToken get(String key) {
+        return tokens.getIfPresent(key);
+    }
+
+    public void put(String key, VerifiedToken verifiedToken) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        tokens.put(key, verifiedToken);
+    }
+
+    // Runs pending expiry and eviction first, the count is exact only once they are done
+    public int size() {
+        tokens.cleanUp();
+        return (int) tokens.estimatedSize();
+    }
+
+    /*
+     * Principal and authorities extracted from a verified token, valid until the token expires
+     */
+    public static final class VerifiedToken {
+
+        private final ClerkPrincipal principal;
+        private final List<? extends GrantedAuthority> authorities;
+        private final long expiresAtMillis;
+
+        public VerifiedToken(String subject, List<? extends GrantedAuthority> authorities, long expiresAtMillis) {
+            this(subject, null, authorities, expiresAtMillis);
+        }
+
+        public VerifiedToken(String subject, String email, List<? extends GrantedAuthority> authorities, long expiresAtMillis) {
+            this.principal = new ClerkPrincipal(subject, email);
+            this.authorities = List.copyOf(authorities);
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getSubject() {
+            return principal.subject();
+        }
+
+        public ClerkPrincipal getPrincipal() {
+            return principal;
+        }
+
+        public List<? extends GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
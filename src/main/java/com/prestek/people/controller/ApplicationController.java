@@ -1,10 +1,17 @@
 package com.prestek.people.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +20,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.dto.StatusUpdateDto;
+import com.prestek.people.dto.StatusUpdateResultDto;
 import com.prestek.people.model.Application.ApplicationStatus;
 import com.prestek.people.service.ApplicationService;
+import com.prestek.people.service.CurrentUserResolver;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,21 +56,74 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Applications", description = "Credit application management operations")
 public class ApplicationController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final ApplicationService applicationService;
+    private final ObjectMapper objectMapper;
+    private final CurrentUserResolver currentUserResolver;
+    
+    @Value("${pagination.max-size:200}")
+    private int maxPageSize;
+    
+    @Value("${applications.bulk-status.max-items:1000}")
+    private int maxBulkStatusItems;
     
     @GetMapping
-    @Operation(summary = "Get all applications", description = "Retrieve a list of all credit applications")
+    @Operation(summary = "Get all applications", description = "Retrieve credit applications one page at a time, ordered by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved applications",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = ApplicationDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<ApplicationDto>> getAllApplications() {
-        log.info("GET /api/applications - Fetching all applications");
-        List<ApplicationDto> applications = applicationService.getAllApplications();
+    public ResponseEntity<CursorPage<ApplicationDto>> getAllApplications(
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        log.info("GET /api/applications?cursor={} - Fetching applications", cursor);
+        CursorPage<ApplicationDto> applications = applicationService.getAllApplications(cursor, pageSize(size));
         return ResponseEntity.ok(applications);
     }
     
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export applications", description = "Stream applications matching the filters as newline-delimited JSON, one application per line, ordered by id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Applications streamed successfully",
+                content = @Content(mediaType = NDJSON,
+                        schema = @Schema(implementation = ApplicationDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid status or date")
+    })
+    public ResponseEntity<StreamingResponseBody> exportApplications(
+            @Parameter(description = "Application status", example = "PENDING")
+            @RequestParam(required = false) ApplicationStatus status,
+            @Parameter(description = "Inclusive lower bound of the application date", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive upper bound of the application date", example = "2025-02-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/applications/export - Exporting applications with status: {} from: {} to: {}", status, from, to);
+        
+        // Each row is written as it is read; the container owns the output stream and the buffer flushes it
+        ObjectWriter writer = objectMapper.writerFor(ApplicationDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                applicationService.exportApplications(status, from, to, application -> {
+                    try {
+                        writer.writeValue(generator, application);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get application by ID", description = "Retrieve a specific application by its unique identifier")
     @ApiResponses(value = {
@@ -75,28 +146,56 @@ public class ApplicationController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved user applications",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = ApplicationDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<ApplicationDto>> getApplicationsByUserId(
+    public ResponseEntity<CursorPage<ApplicationDto>> getApplicationsByUserId(
             @Parameter(description = "User ID", required = true, example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
         log.info("GET /api/applications/user/{} - Fetching applications by user id", userId);
-        List<ApplicationDto> applications = applicationService.getApplicationsByUserId(userId);
+        CursorPage<ApplicationDto> applications = applicationService.getApplicationsByUserId(userId, cursor, pageSize(size));
         return ResponseEntity.ok(applications);
     }
     
+    @GetMapping("/me")
+    @Operation(summary = "Get current user's applications", description = "Retrieve the applications of the user linked to the caller's token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved user applications",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "404", description = "No user is linked to the token")
+    })
+    public ResponseEntity<CursorPage<ApplicationDto>> getCurrentUserApplications(
+            @Parameter(hidden = true) Authentication authentication,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        log.info("GET /api/applications/me - Fetching current user applications");
+        return currentUserResolver.resolveUserId(authentication)
+                .map(userId -> ResponseEntity.ok(applicationService.getApplicationsByUserId(userId, cursor, pageSize(size))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/credit-offer/{creditOfferId}")
     @Operation(summary = "Get applications by credit offer ID", description = "Retrieve all applications for a specific credit offer")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved credit offer applications",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = ApplicationDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<ApplicationDto>> getApplicationsByCreditOfferId(
+    public ResponseEntity<CursorPage<ApplicationDto>> getApplicationsByCreditOfferId(
             @Parameter(description = "Credit offer ID", required = true, example = "1")
-            @PathVariable Long creditOfferId) {
+            @PathVariable Long creditOfferId,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
         log.info("GET /api/applications/credit-offer/{} - Fetching applications by credit offer id", creditOfferId);
-        List<ApplicationDto> applications = applicationService.getApplicationsByCreditOfferId(creditOfferId);
+        CursorPage<ApplicationDto> applications = applicationService.getApplicationsByCreditOfferId(creditOfferId, cursor, pageSize(size));
         return ResponseEntity.ok(applications);
     }
     
@@ -105,13 +204,17 @@ public class ApplicationController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved applications by status",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = ApplicationDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<ApplicationDto>> getApplicationsByStatus(
+    public ResponseEntity<CursorPage<ApplicationDto>> getApplicationsByStatus(
             @Parameter(description = "Application status", required = true, example = "PENDING")
-            @PathVariable ApplicationStatus status) {
+            @PathVariable ApplicationStatus status,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
         log.info("GET /api/applications/status/{} - Fetching applications by status", status);
-        List<ApplicationDto> applications = applicationService.getApplicationsByStatus(status);
+        CursorPage<ApplicationDto> applications = applicationService.getApplicationsByStatus(status, cursor, pageSize(size));
         return ResponseEntity.ok(applications);
     }
     
@@ -147,13 +250,14 @@ public class ApplicationController {
     }
     
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update application status", description = "Update the status of an existing application")
+    @Operation(summary = "Update application status", description = "Move an application to a new status: PENDING to UNDER_REVIEW, APPROVED, REJECTED or CANCELLED; UNDER_REVIEW to APPROVED, REJECTED or CANCELLED")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Application status updated successfully",
                 content = @Content(mediaType = "application/json",
                         schema = @Schema(implementation = ApplicationDto.class))),
         @ApiResponse(responseCode = "404", description = "Application not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid status or input data")
+        @ApiResponse(responseCode = "400", description = "Invalid status or input data"),
+        @ApiResponse(responseCode = "409", description = "Transition not allowed from the current status or status changed concurrently")
     })
     public ResponseEntity<ApplicationDto> updateApplicationStatus(
             @Parameter(description = "Application ID", required = true, example = "1")
@@ -180,7 +284,36 @@ public class ApplicationController {
         } catch (IllegalArgumentException e) {
             log.error("Invalid status value: {}", statusStr);
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.error("Error updating application status: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PatchMapping("/status")
+    @Operation(summary = "Update application statuses in bulk", description = "Apply many status changes with the same transition rules as the single update, reporting the outcome of each one")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status changes processed, see the outcome of each item",
+                content = @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = StatusUpdateResultDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Empty request, too many items, an item without id or status, or invalid status")
+    })
+    public ResponseEntity<List<StatusUpdateResultDto>> updateApplicationStatuses(
+            @Parameter(description = "Status changes, applied in order", required = true)
+            @RequestBody List<StatusUpdateDto> updates) {
+        log.info("PATCH /api/applications/status - Updating status of {} applications", updates.size());
+        
+        if (updates.isEmpty() || updates.size() > maxBulkStatusItems) {
+            log.error("Bulk status update must contain between 1 and {} items, got {}", maxBulkStatusItems, updates.size());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        if (updates.stream().anyMatch(update -> update == null || update.getId() == null || update.getStatus() == null)) {
+            log.error("Every bulk status update item must have an id and a status");
+            return ResponseEntity.badRequest().build();
         }
+        
+        return ResponseEntity.ok(applicationService.updateApplicationStatuses(updates));
     }
     
     @GetMapping("/user/{userId}/count")
@@ -211,4 +344,8 @@ public class ApplicationController {
         boolean deleted = applicationService.deleteApplication(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
+    
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 }
\ No newline at end of file
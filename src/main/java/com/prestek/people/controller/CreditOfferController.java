@@ -1,9 +1,16 @@
 package com.prestek.people.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,13 +23,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CreditOfferImportResultDto;
+import com.prestek.people.dto.CreditOfferSearchCriteria;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.dto.OfferEvaluationDto;
+import com.prestek.people.service.AmortizationSchedule;
+import com.prestek.people.service.CreditOfferImportService;
 import com.prestek.people.service.CreditOfferService;
+import com.prestek.people.service.OfferEligibilityService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -40,17 +57,27 @@ import lombok.extern.slf4j.Slf4j;
 public class CreditOfferController {
     
     private final CreditOfferService creditOfferService;
+    private final OfferEligibilityService offerEligibilityService;
+    private final CreditOfferImportService creditOfferImportService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${pagination.max-size:200}")
+    private int maxPageSize;
     
     @GetMapping
-    @Operation(summary = "Get all credit offers", description = "Retrieve a list of all credit offers")
+    @Operation(summary = "Get all credit offers", description = "Retrieve credit offers one page at a time, ordered by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved credit offers",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = CreditOfferDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<CreditOfferDto>> getAllCreditOffers() {
-        log.info("GET /api/credit-offers - Fetching all credit offers");
-        List<CreditOfferDto> offers = creditOfferService.getAllCreditOffers();
+    public ResponseEntity<CursorPage<CreditOfferDto>> getAllCreditOffers(
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        log.info("GET /api/credit-offers?cursor={} - Fetching credit offers", cursor);
+        CursorPage<CreditOfferDto> offers = creditOfferService.getAllCreditOffers(cursor, pageSize(size));
         return ResponseEntity.ok(offers);
     }
     
@@ -59,11 +86,15 @@ public class CreditOfferController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved active credit offers",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = CreditOfferDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<CreditOfferDto>> getActiveCreditOffers() {
-        log.info("GET /api/credit-offers/active - Fetching active credit offers");
-        List<CreditOfferDto> offers = creditOfferService.getActiveCreditOffers();
+    public ResponseEntity<CursorPage<CreditOfferDto>> getActiveCreditOffers(
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        log.info("GET /api/credit-offers/active?cursor={} - Fetching active credit offers", cursor);
+        CursorPage<CreditOfferDto> offers = creditOfferService.getActiveCreditOffers(cursor, pageSize(size));
         return ResponseEntity.ok(offers);
     }
     
@@ -84,35 +115,155 @@ public class CreditOfferController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping(value = "/{id}/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get amortization schedule", description = "Stream the month-by-month amortization table of a credit offer for a loan amount, using the offer's interest rate and term")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schedule streamed successfully",
+                content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "400", description = "Amount is not greater than zero or above the maximum loan amount"),
+        @ApiResponse(responseCode = "404", description = "Credit offer not found")
+    })
+    public ResponseEntity<StreamingResponseBody> getAmortizationSchedule(
+            @Parameter(description = "Credit offer ID", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Loan amount, defaults to the offer amount", example = "50000.00")
+            @RequestParam(required = false) BigDecimal amount) {
+        log.info("GET /api/credit-offers/{}/schedule?amount={} - Building amortization schedule", id, amount);
+        Optional<AmortizationSchedule> schedule;
+        try {
+            schedule = creditOfferService.getAmortizationSchedule(id, amount);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid amortization schedule request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return schedule
+                .map(found -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body((StreamingResponseBody) outputStream -> writeSchedule(found, outputStream)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/entity/{financialEntity}")
     @Operation(summary = "Get credit offers by financial entity", description = "Retrieve credit offers from a specific financial institution")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved credit offers",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = CreditOfferDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<CreditOfferDto>> getCreditOffersByFinancialEntity(
+    public ResponseEntity<CursorPage<CreditOfferDto>> getCreditOffersByFinancialEntity(
             @Parameter(description = "Financial entity name", required = true, example = "Banco Nacional")
-            @PathVariable String financialEntity) {
+            @PathVariable String financialEntity,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
         log.info("GET /api/credit-offers/entity/{} - Fetching credit offers by financial entity", financialEntity);
-        List<CreditOfferDto> offers = creditOfferService.getCreditOffersByFinancialEntity(financialEntity);
+        CursorPage<CreditOfferDto> offers = creditOfferService.getCreditOffersByFinancialEntity(financialEntity, cursor, pageSize(size));
         return ResponseEntity.ok(offers);
     }
     
     @GetMapping("/amount-range")
-    @Operation(summary = "Get credit offers by amount range", description = "Retrieve credit offers within a specific amount range")
+    @Operation(summary = "Get credit offers by amount range", description = "Retrieve active credit offers within a specific amount range")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved credit offers in range",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = CreditOfferDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<CreditOfferDto>> getCreditOffersByAmountRange(
+    public ResponseEntity<CursorPage<CreditOfferDto>> getCreditOffersByAmountRange(
             @Parameter(description = "Minimum amount", required = true, example = "10000")
             @RequestParam BigDecimal minAmount,
             @Parameter(description = "Maximum amount", required = true, example = "100000")
-            @RequestParam BigDecimal maxAmount) {
+            @RequestParam BigDecimal maxAmount,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
         log.info("GET /api/credit-offers/amount-range?minAmount={}&maxAmount={} - Fetching credit offers by amount range", minAmount, maxAmount);
-        List<CreditOfferDto> offers = creditOfferService.getCreditOffersByAmountRange(minAmount, maxAmount);
+        CursorPage<CreditOfferDto> offers = creditOfferService.getCreditOffersByAmountRange(minAmount, maxAmount, cursor, pageSize(size));
+        return ResponseEntity.ok(offers);
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search credit offers", description = "Retrieve credit offers matching any combination of amount range, maximum interest rate, term range, financial entity and active flag in a single query")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved matching credit offers",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "A minimum is greater than its maximum")
+    })
+    public ResponseEntity<CursorPage<CreditOfferDto>> searchCreditOffers(
+            @Parameter(description = "Minimum amount", example = "10000")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount", example = "100000")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Maximum interest rate", example = "15.5")
+            @RequestParam(required = false) BigDecimal maxRate,
+            @Parameter(description = "Minimum term in months", example = "12")
+            @RequestParam(required = false) Integer minTermMonths,
+            @Parameter(description = "Maximum term in months", example = "60")
+            @RequestParam(required = false) Integer maxTermMonths,
+            @Parameter(description = "Financial entity name", example = "Banco Nacional")
+            @RequestParam(required = false) String financialEntity,
+            @Parameter(description = "Active flag", example = "true")
+            @RequestParam(required = false) Boolean isActive,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        CreditOfferSearchCriteria criteria = CreditOfferSearchCriteria.builder()
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .maxInterestRate(maxRate)
+                .minTermMonths(minTermMonths)
+                .maxTermMonths(maxTermMonths)
+                .financialEntity(financialEntity)
+                .isActive(isActive)
+                .build();
+        log.info("GET /api/credit-offers/search - Searching credit offers with {}", criteria);
+        try {
+            CursorPage<CreditOfferDto> offers = creditOfferService.searchCreditOffers(criteria, cursor, pageSize(size));
+            return ResponseEntity.ok(offers);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid credit offer search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/eligibility/{userId}")
+    @Operation(summary = "Rank credit offers for a user", description = "Price every active credit offer for the user's income and expenses; eligible offers come first, each group ordered by total cost")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully ranked credit offers",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = OfferEvaluationDto.class))),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<List<OfferEvaluationDto>> rankCreditOffersForUser(
+            @Parameter(description = "User unique identifier", required = true, example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Maximum number of offers to return, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int limit) {
+        log.info("GET /api/credit-offers/eligibility/{} - Ranking credit offers for user", userId);
+        return offerEligibilityService.rankOffersForUser(userId, pageSize(limit))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/max-rate")
+    @Operation(summary = "Get credit offers by maximum interest rate", description = "Retrieve active credit offers with an interest rate up to a maximum")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved credit offers up to the rate",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = CursorPage.class)))
+    })
+    public ResponseEntity<CursorPage<CreditOfferDto>> getCreditOffersByMaxInterestRate(
+            @Parameter(description = "Maximum interest rate", required = true, example = "15.5")
+            @RequestParam BigDecimal maxRate,
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        log.info("GET /api/credit-offers/max-rate?maxRate={} - Fetching credit offers by maximum interest rate", maxRate);
+        CursorPage<CreditOfferDto> offers = creditOfferService.getCreditOffersByMaxInterestRate(maxRate, cursor, pageSize(size));
         return ResponseEntity.ok(offers);
     }
     
@@ -132,6 +283,27 @@ public class CreditOfferController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOffer);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Import credit offers from CSV", description = "Stream a CSV file with a header row (amount, interestRate, termMonths, financialEntity and optionally description, requirements, isActive) and insert the valid rows in batched chunks; rows that fail validation or that the database refuses are reported with their row number")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "CSV file with one credit offer per row", required = true,
+            content = @Content(mediaType = "text/csv", schema = @Schema(type = "string")))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, rejected rows are listed in the report",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = CreditOfferImportResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Empty file or missing required header columns")
+    })
+    public ResponseEntity<CreditOfferImportResultDto> importCreditOffers(InputStream csv) throws IOException {
+        log.info("POST /api/credit-offers/import - Importing credit offers from CSV");
+        try {
+            CreditOfferImportResultDto result = creditOfferImportService.importCreditOffers(csv);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.error("Error importing credit offers: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update credit offer", description = "Update an existing credit offer")
     @ApiResponses(value = {
@@ -182,4 +354,60 @@ public class CreditOfferController {
         boolean deleted = creditOfferService.deleteCreditOffer(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
+    
+    // Rows are written as they are computed, money goes from long cents to JSON numbers without BigDecimal
+    private void writeSchedule(AmortizationSchedule schedule, OutputStream outputStream) throws IOException {
+        char[] buffer = new char[24];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("creditOfferId", schedule.creditOfferId());
+            writeMoney(generator, "amount", schedule.principalCents(), buffer);
+            generator.writeNumberField("interestRate", schedule.interestRate());
+            generator.writeNumberField("termMonths", schedule.termMonths());
+            writeMoney(generator, "monthlyInstallment", schedule.installmentCents(), buffer);
+            generator.writeArrayFieldStart("rows");
+            long totalInterest = schedule.forEachRow((month, payment, principal, interest, balance) -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("month", month);
+                    writeMoney(generator, "payment", payment, buffer);
+                    writeMoney(generator, "principal", principal, buffer);
+                    writeMoney(generator, "interest", interest, buffer);
+                    writeMoney(generator, "balance", balance, buffer);
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            writeMoney(generator, "totalInterest", totalInterest, buffer);
+            writeMoney(generator, "totalPaid", schedule.principalCents() + totalInterest, buffer);
+            generator.writeEndObject();
+        }
+    }
+    
+    private static void writeMoney(JsonGenerator generator, String field, long cents, char[] buffer) throws IOException {
+        // Digits are filled right to left: two decimals, the point, then the integer part
+        int position = buffer.length;
+        long value = Math.abs(cents);
+        buffer[--position] = (char) ('0' + value % 10);
+        value /= 10;
+        buffer[--position] = (char) ('0' + value % 10);
+        value /= 10;
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        if (cents < 0) {
+            buffer[--position] = '-';
+        }
+        generator.writeFieldName(field);
+        generator.writeNumber(buffer, position, buffer.length - position);
+    }
+    
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 }
\ No newline at end of file
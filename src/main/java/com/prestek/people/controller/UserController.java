@@ -1,10 +1,15 @@
 package com.prestek.people.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +18,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.prestek.people.dto.CursorPage;
 import com.prestek.people.dto.UserDto;
+import com.prestek.people.dto.UserImportResultDto;
+import com.prestek.people.service.CurrentUserResolver;
+import com.prestek.people.service.UserImportService;
 import com.prestek.people.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -38,19 +48,44 @@ import lombok.extern.slf4j.Slf4j;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final CurrentUserResolver currentUserResolver;
+
+    @Value("${pagination.max-size:200}")
+    private int maxPageSize;
 
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieve a list of all registered users")
+    @Operation(summary = "Get all users", description = "Retrieve registered users one page at a time, ordered by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved users",
                 content = @Content(mediaType = "application/json",
-                        array = @ArraySchema(schema = @Schema(implementation = UserDto.class))))
+                        schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserDto>> getAllUsers(
+            @Parameter(description = "Id of the last item of the previous page, omit for the first page", example = "150")
+            @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size, capped at pagination.max-size", example = "50")
+            @RequestParam(defaultValue = "${pagination.default-size:50}") int size) {
+        CursorPage<UserDto> users = userService.getAllUsers(cursor, pageSize(size));
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/me")
+    @Operation(summary = "Get current user", description = "Retrieve the user linked to the caller's token, resolved without a lookup by email")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User found",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = UserDto.class))),
+        @ApiResponse(responseCode = "404", description = "No user is linked to the token")
+    })
+    public ResponseEntity<UserDto> getCurrentUser(@Parameter(hidden = true) Authentication authentication) {
+        log.info("GET /api/users/me - Fetching current user");
+        return currentUserResolver.resolveUserId(authentication)
+                .flatMap(userService::getUserById)
+                .map(user -> ResponseEntity.ok(user))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve a specific user by their unique identifier")
     @ApiResponses(value = {
@@ -106,6 +141,23 @@ public class UserController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import users", description = "Stream a JSON array (or one JSON user per line) and create the users in batched chunks, skipping duplicates of existing users and of earlier users in the same upload")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Users to create", required = true,
+            content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = UserDto.class))))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, one result per uploaded user in upload order",
+                content = @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = UserImportResultDto.class))))
+    })
+    public ResponseEntity<List<UserImportResultDto>> importUsers(InputStream users) throws IOException {
+        log.info("POST /api/users/import - Importing users");
+        List<UserImportResultDto> results = userImportService.importUsers(users);
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update user", description = "Update an existing user's information")
     @ApiResponses(value = {
@@ -140,4 +192,8 @@ public class UserController {
         boolean deleted = userService.deleteUser(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
-}
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+}
\ No newline at end of file
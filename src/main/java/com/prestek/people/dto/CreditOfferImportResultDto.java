@@ -0,0 +1,45 @@
+package com.prestek.people.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of a credit offer CSV import")
+public class CreditOfferImportResultDto {
+    
+    @Schema(description = "Data rows read from the file, excluding the header", example = "25000")
+    private long rowsRead;
+    
+    @Schema(description = "Offers inserted", example = "24998")
+    private long imported;
+    
+    @Schema(description = "Rows rejected by validation or because their chunk could not be stored", example = "2")
+    private long rejected;
+    
+    @Schema(description = "Errors per rejected row, up to credit-offers.import.max-errors")
+    private List<RowError> errors;
+    
+    @Schema(description = "Whether more rows were rejected than errors reported", example = "false")
+    private boolean errorsTruncated;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Reason a CSV row was not imported")
+    public static class RowError {
+        
+        @Schema(description = "Data row number, 1 is the first row after the header", example = "17")
+        private long row;
+        
+        @Schema(description = "Validation or storage error", example = "interestRate must be a number")
+        private String message;
+    }
+}
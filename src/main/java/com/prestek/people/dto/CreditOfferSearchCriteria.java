@@ -0,0 +1,38 @@
+package com.prestek.people.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Credit offer search filters, every filter is optional and they are combined with AND")
+public class CreditOfferSearchCriteria {
+    
+    @Schema(description = "Inclusive minimum amount", example = "10000")
+    private BigDecimal minAmount;
+    
+    @Schema(description = "Inclusive maximum amount", example = "100000")
+    private BigDecimal maxAmount;
+    
+    @Schema(description = "Inclusive maximum annual interest rate", example = "15.5")
+    private BigDecimal maxInterestRate;
+    
+    @Schema(description = "Inclusive minimum term in months", example = "12")
+    private Integer minTermMonths;
+    
+    @Schema(description = "Inclusive maximum term in months", example = "60")
+    private Integer maxTermMonths;
+    
+    @Schema(description = "Financial entity name", example = "Banco Nacional")
+    private String financialEntity;
+    
+    @Schema(description = "Whether the offer is active", example = "true")
+    private Boolean isActive;
+}
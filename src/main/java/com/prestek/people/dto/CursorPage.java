@@ -0,0 +1,47 @@
+package com.prestek.people.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of results ordered by id, with the cursor to request the next page")
+public class CursorPage<T> {
+    
+    @Schema(description = "Items in this page, ordered by ascending id")
+    private List<T> items;
+    
+    @Schema(description = "Cursor to pass as 'cursor' to fetch the next page, null when this is the last page", example = "150")
+    private Long nextCursor;
+    
+    /*
+     * Method that builds a page from rows fetched with a limit of size + 1,
+     * the extra row only signals that a next page exists
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Long> idExtractor, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        int count = hasNext ? size : rows.size();
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(mapper.apply(rows.get(i)));
+        }
+        Long nextCursor = hasNext ? idExtractor.apply(rows.get(count - 1)) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+    
+    /*
+     * Method that builds a page from rows that already are the items, such as DTO projections
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        return of(rows, size, idExtractor, Function.identity());
+    }
+}
@@ -0,0 +1,50 @@
+package com.prestek.people.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Active credit offer priced for a user's financial profile")
+public class OfferEvaluationDto {
+    
+    @Schema(description = "Position in the ranking, starting at 1", example = "1")
+    private Integer rank;
+    
+    @Schema(description = "Whether the offer keeps the user's debt-to-income ratio within the limit", example = "true")
+    private Boolean eligible;
+    
+    @Schema(description = "Credit offer unique identifier", example = "1")
+    private Long creditOfferId;
+    
+    @Schema(description = "Financial entity name", example = "Banco Nacional")
+    private String financialEntity;
+    
+    @Schema(description = "Loan amount", example = "50000.00")
+    private BigDecimal amount;
+    
+    @Schema(description = "Interest rate percentage", example = "12.5")
+    private BigDecimal interestRate;
+    
+    @Schema(description = "Loan term in months", example = "24")
+    private Integer termMonths;
+    
+    @Schema(description = "Fixed monthly installment", example = "2365.74")
+    private BigDecimal monthlyInstallment;
+    
+    @Schema(description = "Sum of all installments", example = "56777.76")
+    private BigDecimal totalCost;
+    
+    @Schema(description = "Total cost minus the loan amount", example = "6777.76")
+    private BigDecimal totalInterest;
+    
+    @Schema(description = "Monthly expenses plus the installment, divided by the monthly income; null without income", example = "0.3465")
+    private BigDecimal debtToIncomeRatio;
+}
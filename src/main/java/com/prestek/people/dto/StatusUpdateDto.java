@@ -0,0 +1,26 @@
+package com.prestek.people.dto;
+
+import com.prestek.people.model.Application.ApplicationStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Status change requested for one application in a bulk update")
+public class StatusUpdateDto {
+    
+    @Schema(description = "Application unique identifier", example = "1")
+    private Long id;
+    
+    @Schema(description = "New application status", example = "APPROVED")
+    private ApplicationStatus status;
+    
+    @Schema(description = "Review notes, stored as rejection reason when rejecting", example = "Application approved after review")
+    private String notes;
+}
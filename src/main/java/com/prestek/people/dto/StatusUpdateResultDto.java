@@ -0,0 +1,36 @@
+package com.prestek.people.dto;
+
+import com.prestek.people.model.Application.ApplicationStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of one status change in a bulk update")
+public class StatusUpdateResultDto {
+    
+    @Schema(description = "Application unique identifier", example = "1")
+    private Long id;
+    
+    @Schema(description = "Requested application status", example = "APPROVED")
+    private ApplicationStatus status;
+    
+    @Schema(description = "Outcome of the status change", example = "UPDATED")
+    private Outcome outcome;
+    
+    @Schema(description = "Reason when the status was not changed", example = "Cannot change application status from APPROVED to PENDING")
+    private String message;
+    
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        CONFLICT
+    }
+}
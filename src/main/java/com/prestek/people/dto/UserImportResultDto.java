@@ -0,0 +1,38 @@
+package com.prestek.people.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of one user in a bulk import")
+public class UserImportResultDto {
+    
+    @Schema(description = "Position of the user in the uploaded list, starting at 0", example = "0")
+    private long index;
+    
+    @Schema(description = "Id of the created user", example = "1")
+    private Long id;
+    
+    @Schema(description = "User email address", example = "john.doe@example.com")
+    private String email;
+    
+    @Schema(description = "Outcome of the import", example = "CREATED")
+    private Outcome outcome;
+    
+    @Schema(description = "Reason when the user was not created", example = "Email already exists")
+    private String message;
+    
+    public enum Outcome {
+        CREATED,
+        DUPLICATE_EMAIL,
+        DUPLICATE_DOCUMENT,
+        INVALID,
+        FAILED
+    }
+}
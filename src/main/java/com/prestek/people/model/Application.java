@@ -7,17 +7,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "applications")
+// Composite indexes for the lookups by user, offer and status, created by the V2 migration
+@Table(name = "applications", indexes = {
+    @Index(name = "idx_applications_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_applications_credit_offer_status", columnList = "credit_offer_id, status"),
+    @Index(name = "idx_applications_status_date", columnList = "status, application_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Application {
     
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applications_seq")
+    @SequenceGenerator(name = "applications_seq", sequenceName = "applications_seq", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
@@ -71,6 +80,26 @@ public class Application {
         UNDER_REVIEW,
         APPROVED,
         REJECTED,
-        CANCELLED
+        CANCELLED;
+        
+        // Pending applications may be reviewed or decided directly, decided applications are final
+        public boolean canTransitionTo(ApplicationStatus target) {
+            return switch (this) {
+                case PENDING -> target != PENDING;
+                case UNDER_REVIEW -> target == APPROVED || target == REJECTED || target == CANCELLED;
+                case APPROVED, REJECTED, CANCELLED -> false;
+            };
+        }
+        
+        // The statuses an application may be in to move to this one, empty when none may
+        public Set<ApplicationStatus> allowedPredecessors() {
+            Set<ApplicationStatus> predecessors = EnumSet.noneOf(ApplicationStatus.class);
+            for (ApplicationStatus status : values()) {
+                if (status.canTransitionTo(this)) {
+                    predecessors.add(status);
+                }
+            }
+            return predecessors;
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.prestek.people.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -11,15 +13,27 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "credit_offers")
+// Second-level cached: read by every new application, changed rarely
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CreditOffer.CACHE_REGION)
+// Composite indexes for the search endpoint: equality columns first, then the range column
+@Table(name = "credit_offers", indexes = {
+    @Index(name = "idx_credit_offers_active_entity_amount", columnList = "is_active, financial_entity, amount"),
+    @Index(name = "idx_credit_offers_active_amount_rate", columnList = "is_active, amount, interest_rate"),
+    @Index(name = "idx_credit_offers_active_rate_term", columnList = "is_active, interest_rate, term_months")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class CreditOffer {
     
+    public static final String CACHE_REGION = "credit-offers";
+    
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_offers_seq")
+    @SequenceGenerator(name = "credit_offers_seq", sequenceName = "credit_offers_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
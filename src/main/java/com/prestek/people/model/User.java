@@ -1,6 +1,8 @@
 package com.prestek.people.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -10,15 +12,30 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+// Second-level cached: read by every new application and eligibility check, changed rarely
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+// Named unique constraints: signup inserts directly and maps a violation back to the duplicated field
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = User.DOCUMENT_NUMBER_CONSTRAINT, columnNames = "document_number"),
+    @UniqueConstraint(name = User.AUTH_SUBJECT_CONSTRAINT, columnNames = "auth_subject")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
     
+    public static final String CACHE_REGION = "users";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String DOCUMENT_NUMBER_CONSTRAINT = "uk_users_document_number";
+    public static final String AUTH_SUBJECT_CONSTRAINT = "uk_users_auth_subject";
+    
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -27,7 +44,7 @@ public class User {
     @Column(nullable = false)
     private String lastName;
     
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     
     @Column(nullable = false)
@@ -36,6 +53,9 @@ public class User {
     @Column(nullable = false)
     private String documentNumber;
     
+    // Clerk token subject, set the first time the user authenticates; its unique index resolves the caller
+    private String authSubject;
+    
     // Financial profile
     private Double monthlyIncome;
     
@@ -56,8 +76,9 @@ public class User {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
     }
     
     @PreUpdate
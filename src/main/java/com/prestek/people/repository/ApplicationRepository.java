@@ -1,29 +1,105 @@
 package com.prestek.people.repository;
 
+import com.prestek.people.dto.ApplicationDto;
 import com.prestek.people.model.Application;
 import com.prestek.people.model.Application.ApplicationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
     
-    List<Application> findByUserId(Long userId);
+    // User and credit offer are read by ApplicationService.convertToDto, fetch them in the same query
     
-    List<Application> findByCreditOfferId(Long creditOfferId);
+    @Override
+    @EntityGraph(attributePaths = {"user", "creditOffer"})
+    List<Application> findAll();
     
+    @Override
+    @EntityGraph(attributePaths = {"user", "creditOffer"})
+    Optional<Application> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"user", "creditOffer"})
     List<Application> findByStatus(ApplicationStatus status);
     
+    // Read endpoints select the DTO columns directly: no entities are managed or snapshotted
+    String DTO_SELECT = "SELECT new com.prestek.people.dto.ApplicationDto(a.id, a.status, a.applicationDate, a.reviewDate, "
+            + "a.approvalDate, a.notes, a.rejectionReason, a.createdAt, a.updatedAt, u.id, c.id, "
+            + "CONCAT(u.firstName, ' ', u.lastName), c.description) "
+            + "FROM Application a JOIN a.user u JOIN a.creditOffer c ";
+    
+    @Query(DTO_SELECT + "WHERE a.id = :id")
+    Optional<ApplicationDto> findDtoById(@Param("id") Long id);
+    
+    // Keyset pages: rows after the cursor id in id order, the limit is the page size plus one
+    
+    @Query(DTO_SELECT + "WHERE a.id > :afterId ORDER BY a.id")
+    List<ApplicationDto> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND a.id > :afterId ORDER BY a.id")
+    List<ApplicationDto> findDtosByUserIdAndIdGreaterThan(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(DTO_SELECT + "WHERE c.id = :creditOfferId AND a.id > :afterId ORDER BY a.id")
+    List<ApplicationDto> findDtosByCreditOfferIdAndIdGreaterThan(@Param("creditOfferId") Long creditOfferId,
+            @Param("afterId") Long afterId, Limit limit);
+    
+    @Query(DTO_SELECT + "WHERE a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<ApplicationDto> findDtosByStatusAndIdGreaterThan(@Param("status") ApplicationStatus status,
+            @Param("afterId") Long afterId, Limit limit);
+    
+    @EntityGraph(attributePaths = {"user", "creditOffer"})
     @Query("SELECT a FROM Application a WHERE a.user.id = :userId AND a.status = :status")
     List<Application> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ApplicationStatus status);
     
+    @EntityGraph(attributePaths = {"user", "creditOffer"})
     @Query("SELECT a FROM Application a WHERE a.creditOffer.id = :creditOfferId AND a.status = :status")
     List<Application> findByCreditOfferIdAndStatus(@Param("creditOfferId") Long creditOfferId, @Param("status") ApplicationStatus status);
     
+    // Forward-only cursor for exports: rows are fetched from the driver in batches straight into DTOs
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "WHERE (:status IS NULL OR a.status = :status) " +
+           "AND (:from IS NULL OR a.applicationDate >= :from) AND (:to IS NULL OR a.applicationDate < :to) ORDER BY a.id")
+    Stream<ApplicationDto> streamForExport(@Param("status") ApplicationStatus status,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Compare-and-set on the status: updates nothing if the application is not in one of the expected statuses.
+    // Dates and rejection reason passed as null keep their stored value
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :newStatus, a.notes = :notes, " +
+           "a.reviewDate = COALESCE(:reviewDate, a.reviewDate), a.approvalDate = COALESCE(:approvalDate, a.approvalDate), " +
+           "a.rejectionReason = COALESCE(:rejectionReason, a.rejectionReason), a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.status IN :expectedStatuses")
+    int updateStatusIfCurrent(@Param("id") Long id, @Param("expectedStatuses") Collection<ApplicationStatus> expectedStatuses,
+            @Param("newStatus") ApplicationStatus newStatus, @Param("notes") String notes,
+            @Param("reviewDate") LocalDateTime reviewDate, @Param("approvalDate") LocalDateTime approvalDate,
+            @Param("rejectionReason") String rejectionReason, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("SELECT a.status FROM Application a WHERE a.id = :id")
+    Optional<ApplicationStatus> findStatusById(@Param("id") Long id);
+    
+    @Query("SELECT a.id AS id, a.status AS status FROM Application a WHERE a.id IN :ids")
+    List<StatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT COUNT(a) FROM Application a WHERE a.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
+    
+    interface StatusView {
+        Long getId();
+        
+        ApplicationStatus getStatus();
+    }
 }
\ No newline at end of file
@@ -1,24 +1,40 @@
 package com.prestek.people.repository;
 
+import com.prestek.people.dto.CreditOfferDto;
 import com.prestek.people.model.CreditOffer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface CreditOfferRepository extends JpaRepository<CreditOffer, Long> {
+public interface CreditOfferRepository extends JpaRepository<CreditOffer, Long>, JpaSpecificationExecutor<CreditOffer> {
     
+    // Query cache: the catalog reload reuses the result until an offer changes. Reads the primary
+    // even outside a transaction, the catalog is kept until the next change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Transactional
     List<CreditOffer> findByIsActiveTrue();
     
     List<CreditOffer> findByFinancialEntity(String financialEntity);
     
-    @Query("SELECT co FROM CreditOffer co WHERE co.isActive = true AND co.amount >= :minAmount AND co.amount <= :maxAmount")
-    List<CreditOffer> findActiveOffersByAmountRange(@Param("minAmount") BigDecimal minAmount, @Param("maxAmount") BigDecimal maxAmount);
+    // Keyset pages selected directly into DTOs: rows after the cursor id in id order, the limit is the
+    // page size plus one. No entities are managed or snapshotted
+    String DTO_SELECT = "SELECT new com.prestek.people.dto.CreditOfferDto(c.id, c.amount, c.interestRate, c.termMonths, "
+            + "c.financialEntity, c.description, c.requirements, c.isActive, c.createdAt, c.updatedAt) FROM CreditOffer c ";
     
-    @Query("SELECT co FROM CreditOffer co WHERE co.isActive = true AND co.interestRate <= :maxRate")
-    List<CreditOffer> findActiveOffersByMaxInterestRate(@Param("maxRate") BigDecimal maxRate);
+    @Query(DTO_SELECT + "WHERE c.id > :afterId ORDER BY c.id")
+    List<CreditOfferDto> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(DTO_SELECT + "WHERE c.financialEntity = :financialEntity AND c.id > :afterId ORDER BY c.id")
+    List<CreditOfferDto> findDtosByFinancialEntityAndIdGreaterThan(@Param("financialEntity") String financialEntity,
+            @Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.prestek.people.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.prestek.people.dto.CreditOfferSearchCriteria;
+import com.prestek.people.model.CreditOffer;
+
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Specifications for credit offer searches. Only the filters that are present become
+ * predicates, so each search runs as a single query that can use the composite indexes
+ * declared on CreditOffer.
+ */
+public final class CreditOfferSpecifications {
+    
+    private CreditOfferSpecifications() {
+    }
+    
+    /*
+     * Method that builds the search predicate for the given criteria, restricted to ids after a cursor
+     *
+     * @param criteria, the search filters, null filters are ignored
+     * @param afterId, the id of the last offer of the previous page, 0 for the first page
+     * @return Specification, the combined predicate
+     */
+    public static Specification<CreditOffer> matching(CreditOfferSearchCriteria criteria, long afterId) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getIsActive() != null) {
+                predicates.add(builder.equal(root.get("isActive"), criteria.getIsActive()));
+            }
+            if (criteria.getFinancialEntity() != null) {
+                predicates.add(builder.equal(root.get("financialEntity"), criteria.getFinancialEntity()));
+            }
+            if (criteria.getMinAmount() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("amount"), criteria.getMinAmount()));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("amount"), criteria.getMaxAmount()));
+            }
+            if (criteria.getMaxInterestRate() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("interestRate"), criteria.getMaxInterestRate()));
+            }
+            if (criteria.getMinTermMonths() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("termMonths"), criteria.getMinTermMonths()));
+            }
+            if (criteria.getMaxTermMonths() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("termMonths"), criteria.getMaxTermMonths()));
+            }
+            predicates.add(builder.greaterThan(root.get("id"), afterId));
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,24 +1,72 @@
 package com.prestek.people.repository;
 
+import com.prestek.people.dto.UserDto;
 import com.prestek.people.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Keyset pages selected directly into DTOs: no entities are managed or snapshotted
+    @Query("SELECT new com.prestek.people.dto.UserDto(u.id, u.firstName, u.lastName, u.email, u.phone, u.documentNumber, "
+            + "u.monthlyIncome, u.monthlyExpenses, u.creditScore, u.employmentStatus, u.createdAt, u.updatedAt) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDto> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+    
+    // Lookups by id and email read the primary even outside a transaction: their results are
+    // cached, and a lagging replica would cache a user created moments ago as missing
+    @Override
+    @Transactional
+    Optional<User> findById(Long id);
+    
+    @Transactional
     Optional<User> findByEmail(String email);
     
     Optional<User> findByDocumentNumber(String documentNumber);
     
+    // Query cache: survives evictions from the resolver's cache until the users table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u.id FROM User u WHERE u.authSubject = :authSubject")
+    Optional<Long> findIdByAuthSubject(@Param("authSubject") String authSubject);
+    
     @Query("SELECT u FROM User u WHERE u.email = :email OR u.documentNumber = :documentNumber")
     Optional<User> findByEmailOrDocumentNumber(@Param("email") String email, @Param("documentNumber") String documentNumber);
     
-    boolean existsByEmail(String email);
+    // Set-based duplicate checks for bulk imports, one query per chunk instead of one per user
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT u.documentNumber FROM User u WHERE u.documentNumber IN :documentNumbers")
+    List<String> findExistingDocumentNumbers(@Param("documentNumbers") Collection<String> documentNumbers);
+    
+    // Count and keyset pages of the unique keys, used to rebuild the user key filter. They read the
+    // primary: the filter is kept until the next rebuild, and a lagging replica would leave out new users
+    @Override
+    @Transactional
+    long count();
+    
+    @Transactional
+    @Query("SELECT u.id AS id, u.email AS email, u.documentNumber AS documentNumber FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<KeysView> findKeysByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
     
-    boolean existsByDocumentNumber(String documentNumber);
-}
\ No newline at end of file
+    interface KeysView {
+        Long getId();
+        
+        String getEmail();
+        
+        String getDocumentNumber();
+    }
+}
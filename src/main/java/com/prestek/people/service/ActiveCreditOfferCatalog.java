@@ -0,0 +1,285 @@
+package com.prestek.people.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CursorPage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Class that holds an immutable snapshot of the active credit offers, ordered by id.
+ * A snapshot is replaced as a whole, so readers always see one consistent catalog.
+ * Every rebuild takes a generation number before reading the database, and a snapshot
+ * is only installed over an older generation, so a slow rebuild cannot overwrite the
+ * result of a rebuild that started after a later commit.
+ */
+@Component
+public class ActiveCreditOfferCatalog {
+    
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rebuilds;
+    
+    public ActiveCreditOfferCatalog(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("credit_offers.catalog.lookups")
+                .description("Active credit offer lookups by whether a snapshot was available")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("credit_offers.catalog.lookups")
+                .description("Active credit offer lookups by whether a snapshot was available")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuilds = Counter.builder("credit_offers.catalog.rebuilds")
+                .description("Snapshots of the active credit offers installed")
+                .register(meterRegistry);
+        Gauge.builder("credit_offers.catalog.size", snapshot, current -> current.get() != null ? current.get().offers().size() : 0)
+                .description("Active credit offers in the current snapshot")
+                .register(meterRegistry);
+    }
+    
+    /*
+     * Method that returns the current snapshot, recording a hit or a miss
+     *
+     * @return Snapshot, the current snapshot or null if it has to be built
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot.get();
+        (current != null ? hits : misses).increment();
+        return current;
+    }
+    
+    /*
+     * Method that reserves the generation of a rebuild, call it before reading the offers
+     *
+     * @return long, the generation to pass to install
+     */
+    public long nextGeneration() {
+        return generations.incrementAndGet();
+    }
+    
+    /*
+     * Method that installs a rebuilt snapshot unless a newer one is already installed
+     *
+     * @param generation, the generation reserved before the offers were read
+     * @param offers, the active offers read from the database
+     * @return Snapshot, the snapshot in place after the call
+     */
+    public Snapshot install(long generation, List<CreditOfferDto> offers) {
+        Snapshot rebuilt = new Snapshot(generation, offers.stream()
+                .sorted(Comparator.comparing(CreditOfferDto::getId))
+                .toList());
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current != null && current.generation() >= generation) {
+                return current;
+            }
+            if (snapshot.compareAndSet(current, rebuilt)) {
+                rebuilds.increment();
+                return rebuilt;
+            }
+        }
+    }
+    
+    /*
+     * Method that drops the current snapshot so the next lookup reads the database
+     */
+    public void invalidate() {
+        snapshot.set(null);
+    }
+    
+    /*
+     * Active offers ordered by id, shared by all readers and never modified. Offer positions
+     * are also kept sorted by amount and by interest rate, so range lookups binary search the
+     * bounds and only touch the matching offers. Installments and total costs do not depend
+     * on the applicant, so they are computed once per snapshot into primitive arrays.
+     */
+    public static final class Snapshot {
+        
+        private final long generation;
+        private final List<CreditOfferDto> offers;
+        private final BigDecimal[] sortedAmounts;
+        private final int[] positionsByAmount;
+        private final BigDecimal[] sortedRates;
+        private final int[] positionsByRate;
+        private final double[] monthlyInstallments;
+        private final double[] totalCosts;
+        private final int[] positionsByTotalCost;
+        
+        Snapshot(long generation, List<CreditOfferDto> offers) {
+            this.generation = generation;
+            this.offers = offers;
+            this.positionsByAmount = positionsSortedBy(offers, CreditOfferDto::getAmount);
+            this.sortedAmounts = keysAt(offers, positionsByAmount, CreditOfferDto::getAmount);
+            this.positionsByRate = positionsSortedBy(offers, CreditOfferDto::getInterestRate);
+            this.sortedRates = keysAt(offers, positionsByRate, CreditOfferDto::getInterestRate);
+            this.monthlyInstallments = new double[offers.size()];
+            this.totalCosts = new double[offers.size()];
+            for (int i = 0; i < offers.size(); i++) {
+                CreditOfferDto offer = offers.get(i);
+                boolean priced = offer.getAmount() != null && offer.getInterestRate() != null && offer.getTermMonths() != null;
+                monthlyInstallments[i] = priced
+                        ? LoanMath.monthlyInstallment(offer.getAmount().doubleValue(), offer.getInterestRate().doubleValue(), offer.getTermMonths())
+                        : Double.NaN;
+                totalCosts[i] = priced ? monthlyInstallments[i] * offer.getTermMonths() : Double.NaN;
+            }
+            // Cheapest first, offers that cannot be priced (NaN) last, ties in id order
+            this.positionsByTotalCost = IntStream.range(0, offers.size())
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(position -> totalCosts[position]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        
+        public long generation() {
+            return generation;
+        }
+        
+        public List<CreditOfferDto> offers() {
+            return offers;
+        }
+        
+        // Shared arrays for the evaluation engine, callers must not modify them
+        
+        double[] monthlyInstallments() {
+            return monthlyInstallments;
+        }
+        
+        double[] totalCosts() {
+            return totalCosts;
+        }
+        
+        int[] positionsByTotalCost() {
+            return positionsByTotalCost;
+        }
+        
+        /*
+         * Method that returns the page of offers after a cursor
+         *
+         * @param cursor, the id of the last offer of the previous page, null for the first page
+         * @param size, the page size
+         * @return CursorPage, the offers after the cursor
+         */
+        public CursorPage<CreditOfferDto> page(Long cursor, int size) {
+            int from = cursor != null ? firstAfter(cursor) : 0;
+            int to = (int) Math.min((long) from + size + 1, offers.size());
+            return CursorPage.of(offers.subList(from, to), size, CreditOfferDto::getId, offer -> offer);
+        }
+        
+        /*
+         * Method that returns the page of offers with an amount within a range, in id order
+         *
+         * @param minAmount, the inclusive minimum amount
+         * @param maxAmount, the inclusive maximum amount
+         * @param cursor, the id of the last offer of the previous page, null for the first page
+         * @param size, the page size
+         * @return CursorPage, the matching offers after the cursor
+         */
+        public CursorPage<CreditOfferDto> pageByAmount(BigDecimal minAmount, BigDecimal maxAmount, Long cursor, int size) {
+            int low = lowerBound(sortedAmounts, minAmount);
+            int high = upperBound(sortedAmounts, maxAmount);
+            return pageOfPositions(positionsByAmount, low, high, cursor, size);
+        }
+        
+        /*
+         * Method that returns the page of offers with an interest rate up to a maximum, in id order
+         *
+         * @param maxRate, the inclusive maximum interest rate
+         * @param cursor, the id of the last offer of the previous page, null for the first page
+         * @param size, the page size
+         * @return CursorPage, the matching offers after the cursor
+         */
+        public CursorPage<CreditOfferDto> pageByMaxRate(BigDecimal maxRate, Long cursor, int size) {
+            return pageOfPositions(positionsByRate, 0, upperBound(sortedRates, maxRate), cursor, size);
+        }
+        
+        private CursorPage<CreditOfferDto> pageOfPositions(int[] positions, int low, int high, Long cursor, int size) {
+            // Mark the matches by id position so the page comes out in id order without sorting
+            BitSet matches = new BitSet(offers.size());
+            for (int i = low; i < high; i++) {
+                matches.set(positions[i]);
+            }
+            List<CreditOfferDto> rows = new ArrayList<>(Math.min(size + 1, Math.max(0, high - low)));
+            int position = matches.nextSetBit(cursor != null ? firstAfter(cursor) : 0);
+            while (position >= 0 && rows.size() <= size) {
+                rows.add(offers.get(position));
+                position = matches.nextSetBit(position + 1);
+            }
+            return CursorPage.of(rows, size, CreditOfferDto::getId, offer -> offer);
+        }
+        
+        private int firstAfter(long id) {
+            int low = 0;
+            int high = offers.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (offers.get(middle).getId() <= id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+        
+        private static int lowerBound(BigDecimal[] keys, BigDecimal key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+        
+        private static int upperBound(BigDecimal[] keys, BigDecimal key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+        
+        private static int[] positionsSortedBy(List<CreditOfferDto> offers, Function<CreditOfferDto, BigDecimal> key) {
+            // Offers without the key never match a range, so they stay out of the index
+            return IntStream.range(0, offers.size())
+                    .filter(position -> key.apply(offers.get(position)) != null)
+                    .boxed()
+                    .sorted(Comparator.comparing(position -> key.apply(offers.get(position))))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        
+        private static BigDecimal[] keysAt(List<CreditOfferDto> offers, int[] positions, Function<CreditOfferDto, BigDecimal> key) {
+            BigDecimal[] keys = new BigDecimal[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                keys[i] = key.apply(offers.get(positions[i]));
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.prestek.people.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+ * Class that computes the month-by-month amortization table of a fixed installment loan.
+ * Money is kept as long cents and every row is handed to a primitive callback, so a
+ * schedule of any length is produced without allocating per row. Interest is rounded to
+ * the cent each month and the last installment absorbs the rounding so the balance ends at 0.
+ */
+public final class AmortizationSchedule {
+    
+    // Keeps the amounts in cents well inside the range doubles and longs hold exactly
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("1000000000000.00");
+    
+    /*
+     * Callback that receives each row of the schedule, all amounts in cents
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(int month, long paymentCents, long principalCents, long interestCents, long balanceCents);
+    }
+    
+    private final Long creditOfferId;
+    private final BigDecimal interestRate;
+    private final int termMonths;
+    private final long principalCents;
+    private final double monthlyRate;
+    private final long installmentCents;
+    
+    private AmortizationSchedule(Long creditOfferId, BigDecimal interestRate, int termMonths, long principalCents) {
+        this.creditOfferId = creditOfferId;
+        this.interestRate = interestRate;
+        this.termMonths = termMonths;
+        this.principalCents = principalCents;
+        this.monthlyRate = interestRate.doubleValue() / 100.0 / 12.0;
+        this.installmentCents = Math.round(LoanMath.monthlyInstallment(principalCents, interestRate.doubleValue(), termMonths));
+    }
+    
+    /*
+     * Method that builds the schedule of a loan
+     *
+     * @param creditOfferId, the credit offer the schedule belongs to
+     * @param amount, the loan amount, rounded to cents
+     * @param interestRate, the annual interest rate as a percentage
+     * @param termMonths, the number of monthly installments
+     * @return AmortizationSchedule, the schedule ready to be iterated
+     * @throws IllegalArgumentException if the amount is not positive or above MAX_AMOUNT, the rate negative or the term empty
+     */
+    public static AmortizationSchedule of(Long creditOfferId, BigDecimal amount, BigDecimal interestRate, int termMonths) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Loan amount must be greater than zero");
+        }
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            throw new IllegalArgumentException("Loan amount must not exceed " + MAX_AMOUNT.toPlainString());
+        }
+        if (interestRate == null || interestRate.signum() < 0) {
+            throw new IllegalArgumentException("Interest rate must not be negative");
+        }
+        if (termMonths <= 0) {
+            throw new IllegalArgumentException("Term must be at least one month");
+        }
+        long principalCents = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return new AmortizationSchedule(creditOfferId, interestRate, termMonths, principalCents);
+    }
+    
+    /*
+     * Method that walks the schedule from the first to the last month
+     *
+     * @param consumer, the callback receiving every row
+     * @return long, the total interest paid in cents
+     */
+    public long forEachRow(RowConsumer consumer) {
+        long balance = principalCents;
+        long totalInterest = 0;
+        for (int month = 1; month <= termMonths; month++) {
+            long interest = Math.round(balance * monthlyRate);
+            long principal = month == termMonths ? balance : Math.min(installmentCents - interest, balance);
+            balance -= principal;
+            totalInterest += interest;
+            consumer.accept(month, principal + interest, principal, interest, balance);
+        }
+        return totalInterest;
+    }
+    
+    public Long creditOfferId() {
+        return creditOfferId;
+    }
+    
+    public BigDecimal interestRate() {
+        return interestRate;
+    }
+    
+    public int termMonths() {
+        return termMonths;
+    }
+    
+    public long principalCents() {
+        return principalCents;
+    }
+    
+    public long installmentCents() {
+        return installmentCents;
+    }
+}
@@ -1,20 +1,41 @@
 package com.prestek.people.service;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.dto.StatusUpdateDto;
+import com.prestek.people.dto.StatusUpdateResultDto;
+import com.prestek.people.dto.StatusUpdateResultDto.Outcome;
 import com.prestek.people.model.Application;
 import com.prestek.people.model.Application.ApplicationStatus;
 import com.prestek.people.repository.ApplicationRepository;
+import com.prestek.people.repository.ApplicationRepository.StatusView;
 import com.prestek.people.repository.CreditOfferRepository;
 import com.prestek.people.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,43 +48,76 @@ public class ApplicationService {
     private final ApplicationRepository applicationRepository;
     private final UserRepository userRepository;
     private final CreditOfferRepository creditOfferRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     
-    public List<ApplicationDto> getAllApplications() {
-        log.info("Fetching all applications");
-        return applicationRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Value("${applications.bulk-status.chunk-size:100}")
+    private int bulkStatusChunkSize;
+    
+    private volatile String statusUpdateSql;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationDto> getAllApplications(Long cursor, int size) {
+        log.info("Fetching applications after cursor: {}", cursor);
+        List<ApplicationDto> applications = applicationRepository.findDtosByIdGreaterThan(afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(applications, size, ApplicationDto::getId);
     }
     
+    @Transactional(readOnly = true)
     public Optional<ApplicationDto> getApplicationById(Long id) {
         log.info("Fetching application with id: {}", id);
-        return applicationRepository.findById(id)
-                .map(this::convertToDto);
+        return applicationRepository.findDtoById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationDto> getApplicationsByUserId(Long userId, Long cursor, int size) {
+        log.info("Fetching applications for user id: {} after cursor: {}", userId, cursor);
+        List<ApplicationDto> applications = applicationRepository.findDtosByUserIdAndIdGreaterThan(
+                userId, afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(applications, size, ApplicationDto::getId);
     }
     
-    public List<ApplicationDto> getApplicationsByUserId(Long userId) {
-        log.info("Fetching applications for user id: {}", userId);
-        return applicationRepository.findByUserId(userId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationDto> getApplicationsByCreditOfferId(Long creditOfferId, Long cursor, int size) {
+        log.info("Fetching applications for credit offer id: {} after cursor: {}", creditOfferId, cursor);
+        List<ApplicationDto> applications = applicationRepository.findDtosByCreditOfferIdAndIdGreaterThan(
+                creditOfferId, afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(applications, size, ApplicationDto::getId);
     }
     
-    public List<ApplicationDto> getApplicationsByCreditOfferId(Long creditOfferId) {
-        log.info("Fetching applications for credit offer id: {}", creditOfferId);
-        return applicationRepository.findByCreditOfferId(creditOfferId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationDto> getApplicationsByStatus(ApplicationStatus status, Long cursor, int size) {
+        log.info("Fetching applications with status: {} after cursor: {}", status, cursor);
+        List<ApplicationDto> applications = applicationRepository.findDtosByStatusAndIdGreaterThan(
+                status, afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(applications, size, ApplicationDto::getId);
     }
     
-    public List<ApplicationDto> getApplicationsByStatus(ApplicationStatus status) {
-        log.info("Fetching applications with status: {}", status);
-        return applicationRepository.findByStatus(status)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /*
+     * Method that streams the applications matching the filters, in id order, to a sink.
+     * Rows are read through a forward-only cursor straight into DTOs, nothing is kept in the
+     * persistence context, so memory use does not depend on the number of applications.
+     *
+     * @param status, the status to filter by, null for any status
+     * @param from, the inclusive lower bound of the application date, null for no bound
+     * @param to, the exclusive upper bound of the application date, null for no bound
+     * @param sink, the consumer receiving each application
+     * @return long, the number of applications exported
+     */
+    @Transactional(readOnly = true)
+    public long exportApplications(ApplicationStatus status, LocalDateTime from, LocalDateTime to, Consumer<ApplicationDto> sink) {
+        log.info("Exporting applications with status: {} from: {} to: {}", status, from, to);
+        long exported = 0;
+        try (Stream<ApplicationDto> applications = applicationRepository.streamForExport(status, from, to)) {
+            var iterator = applications.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                exported++;
+            }
+        }
+        log.info("Exported {} applications", exported);
+        return exported;
     }
     
     public ApplicationDto createApplication(Long userId, Long creditOfferId) {
@@ -92,34 +146,59 @@ public class ApplicationService {
         return convertToDto(savedApplication);
     }
     
+    /*
+     * Method that moves an application to a new status. The change is written first with a
+     * single UPDATE guarded by the statuses allowed to move to the new one, so a concurrent
+     * transition makes this one fail instead of overwriting it. Only when nothing was updated
+     * is the current status read, to tell a missing application from a refused transition.
+     *
+     * @param id, the application id
+     * @param newStatus, the target status
+     * @param notes, the review notes, also stored as rejection reason when rejecting
+     * @return Optional, the updated application or empty if it does not exist
+     * @throws IllegalStateException if the transition is not allowed from the current status
+     */
     public Optional<ApplicationDto> updateApplicationStatus(Long id, ApplicationStatus newStatus, String notes) {
         log.info("Updating application {} status to: {}", id, newStatus);
         
-        return applicationRepository.findById(id)
-                .map(application -> {
-                    ApplicationStatus oldStatus = application.getStatus();
-                    application.setStatus(newStatus);
-                    application.setNotes(notes);
-                    
-                    // Set review date when moving to UNDER_REVIEW
-                    if (newStatus == ApplicationStatus.UNDER_REVIEW && oldStatus != ApplicationStatus.UNDER_REVIEW) {
-                        application.setReviewDate(LocalDateTime.now());
-                    }
-                    
-                    // Set approval date when approved
-                    if (newStatus == ApplicationStatus.APPROVED && oldStatus != ApplicationStatus.APPROVED) {
-                        application.setApprovalDate(LocalDateTime.now());
-                    }
-                    
-                    // Set rejection reason when rejected
-                    if (newStatus == ApplicationStatus.REJECTED) {
-                        application.setRejectionReason(notes);
-                    }
-                    
-                    Application updatedApplication = applicationRepository.save(application);
-                    log.info("Application status updated successfully for id: {}", updatedApplication.getId());
-                    return convertToDto(updatedApplication);
-                });
+        Set<ApplicationStatus> allowedPredecessors = newStatus.allowedPredecessors();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = allowedPredecessors.isEmpty() ? 0 : applicationRepository.updateStatusIfCurrent(id, allowedPredecessors,
+                newStatus, notes,
+                newStatus == ApplicationStatus.UNDER_REVIEW ? now : null,
+                newStatus == ApplicationStatus.APPROVED ? now : null,
+                newStatus == ApplicationStatus.REJECTED ? notes : null,
+                now);
+        if (updated == 0) {
+            Optional<ApplicationStatus> currentStatus = applicationRepository.findStatusById(id);
+            if (currentStatus.isEmpty()) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Cannot change application status from " + currentStatus.get() + " to " + newStatus);
+        }
+        log.info("Application status updated successfully for id: {}", id);
+        return applicationRepository.findDtoById(id);
+    }
+    
+    /*
+     * Method that applies many status changes with the same transition rules as
+     * updateApplicationStatus. Changes are sent as JDBC batches of guarded updates,
+     * one transaction per chunk, so a failing chunk does not undo the previous ones.
+     *
+     * @param updates, the requested status changes, applied in order
+     * @return List, the outcome of every requested change in request order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StatusUpdateResultDto> updateApplicationStatuses(List<StatusUpdateDto> updates) {
+        log.info("Updating status of {} applications", updates.size());
+        List<StatusUpdateResultDto> results = new ArrayList<>(updates.size());
+        for (int start = 0; start < updates.size(); start += bulkStatusChunkSize) {
+            List<StatusUpdateDto> chunk = updates.subList(start, Math.min(start + bulkStatusChunkSize, updates.size()));
+            results.addAll(transactionTemplate.execute(status -> applyStatusChunk(chunk)));
+        }
+        log.info("Bulk status update finished: {} of {} applications updated",
+                results.stream().filter(result -> result.getOutcome() == Outcome.UPDATED).count(), updates.size());
+        return results;
     }
     
     public boolean deleteApplication(Long id) {
@@ -135,12 +214,111 @@ public class ApplicationService {
         return false;
     }
     
+    @Transactional(readOnly = true)
     public Long getApplicationCountByUserId(Long userId) {
         log.info("Getting application count for user id: {}", userId);
         return applicationRepository.countByUserId(userId);
     }
     
-    private ApplicationDto convertToDto(Application application) {
+    private List<StatusUpdateResultDto> applyStatusChunk(List<StatusUpdateDto> chunk) {
+        List<Long> ids = chunk.stream().map(StatusUpdateDto::getId).toList();
+        Map<Long, ApplicationStatus> currentStatuses = new HashMap<>();
+        for (StatusView view : applicationRepository.findStatusesByIdIn(ids)) {
+            currentStatuses.put(view.getId(), view.getStatus());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        StatusUpdateResultDto[] results = new StatusUpdateResultDto[chunk.size()];
+        List<Object[]> batchArgs = new ArrayList<>();
+        List<Integer> batchPositions = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            StatusUpdateDto update = chunk.get(i);
+            ApplicationStatus newStatus = update.getStatus();
+            ApplicationStatus oldStatus = currentStatuses.get(update.getId());
+            if (oldStatus == null) {
+                results[i] = result(update, Outcome.NOT_FOUND, "Application not found with id: " + update.getId());
+            } else if (newStatus == null || !oldStatus.canTransitionTo(newStatus)) {
+                results[i] = result(update, Outcome.INVALID_TRANSITION, "Cannot change application status from " + oldStatus + " to " + newStatus);
+            } else {
+                // Later changes to the same application in this chunk are validated against this one
+                currentStatuses.put(update.getId(), newStatus);
+                batchArgs.add(new Object[] {
+                        newStatus.name(),
+                        update.getNotes(),
+                        timestamp,
+                        newStatus == ApplicationStatus.UNDER_REVIEW ? timestamp : null,
+                        newStatus == ApplicationStatus.APPROVED ? timestamp : null,
+                        newStatus == ApplicationStatus.REJECTED ? update.getNotes() : null,
+                        update.getId(),
+                        oldStatus.name()
+                });
+                batchPositions.add(i);
+            }
+        }
+        
+        if (!batchArgs.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(statusUpdateSql(), batchArgs, new int[] {
+                    Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP,
+                    Types.VARCHAR, Types.BIGINT, Types.VARCHAR });
+            for (int j = 0; j < counts.length; j++) {
+                int position = batchPositions.get(j);
+                StatusUpdateDto update = chunk.get(position);
+                results[position] = counts[j] > 0 || counts[j] == Statement.SUCCESS_NO_INFO
+                        ? result(update, Outcome.UPDATED, null)
+                        : result(update, Outcome.CONFLICT, "Application " + update.getId() + " status changed concurrently");
+            }
+        }
+        return List.of(results);
+    }
+    
+    private StatusUpdateResultDto result(StatusUpdateDto update, Outcome outcome, String message) {
+        return StatusUpdateResultDto.builder()
+                .id(update.getId())
+                .status(update.getStatus())
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+    
+    /*
+     * Method that builds the guarded status UPDATE from the Hibernate mapping,
+     * so the table carries the configured schema and the identifiers are quoted like the entity's
+     *
+     * @return String, the SQL of the guarded status update
+     */
+    private String statusUpdateSql() {
+        String sql = statusUpdateSql;
+        if (sql == null) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(Application.class);
+            String status = column(persister, "status");
+            sql = "UPDATE " + persister.getTableName()
+                    + " SET " + status + " = ?, " + column(persister, "notes") + " = ?, " + column(persister, "updatedAt") + " = ?, "
+                    + coalesce(column(persister, "reviewDate")) + ", "
+                    + coalesce(column(persister, "approvalDate")) + ", "
+                    + coalesce(column(persister, "rejectionReason"))
+                    + " WHERE " + persister.getIdentifierColumnNames()[0] + " = ? AND " + status + " = ?";
+            statusUpdateSql = sql;
+        }
+        return sql;
+    }
+    
+    private String column(AbstractEntityPersister persister, String property) {
+        return persister.getPropertyColumnNames(property)[0];
+    }
+    
+    private String coalesce(String column) {
+        return column + " = COALESCE(?, " + column + ")";
+    }
+    
+    private Long afterId(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+    
+    ApplicationDto convertToDto(Application application) {
         String userFullName = application.getUser() != null 
             ? application.getUser().getFirstName() + " " + application.getUser().getLastName()
             : null;
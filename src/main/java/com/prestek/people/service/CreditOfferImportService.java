@@ -0,0 +1,278 @@
+package com.prestek.people.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.prestek.people.dto.CreditOfferImportResultDto;
+import com.prestek.people.dto.CreditOfferImportResultDto.RowError;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.repository.CreditOfferRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Service that imports credit offers from a CSV stream. Rows are parsed one at a time and
+ * inserted in chunks, each chunk in its own transaction with a flush and clear, so neither
+ * the file nor the inserted entities are ever held in memory as a whole. Invalid rows are
+ * skipped and reported. A chunk the database rejects is stored again one row per transaction,
+ * so only the rows the database refuses are reported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreditOfferImportService {
+    
+    private static final ObjectReader CSV_ROWS = new CsvMapper()
+            .readerForArrayOf(String.class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .with(CsvParser.Feature.TRIM_SPACES);
+    
+    private static final int MAX_TEXT_LENGTH = 255;
+    
+    private final CreditOfferRepository creditOfferRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${credit-offers.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${credit-offers.import.max-errors:1000}")
+    private int maxErrors;
+    
+    /*
+     * Method that imports credit offers from a CSV file with a header row. Required columns are
+     * amount, interestRate, termMonths and financialEntity; description, requirements and
+     * isActive are optional. Chunks that were stored stay stored if a later chunk fails.
+     *
+     * @param csv, the CSV content
+     * @return CreditOfferImportResultDto, the counts and the errors per rejected row
+     * @throws IOException, if the stream cannot be read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CreditOfferImportResultDto importCreditOffers(InputStream csv) throws IOException {
+        ImportReport report = new ImportReport(maxErrors);
+        List<CreditOffer> chunk = new ArrayList<>(chunkSize);
+        long[] chunkRows = new long[chunkSize];
+        
+        try (MappingIterator<String[]> rows = CSV_ROWS.readValues(csv)) {
+            if (!rows.hasNextValue()) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Columns columns = Columns.of(rows.nextValue());
+            long row = 0;
+            while (true) {
+                String[] values;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    values = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resynchronize after malformed quoting, stop at this row
+                    report.rowsRead++;
+                    report.reject(row + 1, "Malformed CSV, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+                row++;
+                report.rowsRead++;
+                try {
+                    chunkRows[chunk.size()] = row;
+                    chunk.add(columns.toCreditOffer(values));
+                } catch (IllegalArgumentException e) {
+                    report.reject(row, e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    store(chunk, chunkRows, report);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            store(chunk, chunkRows, report);
+        }
+        if (report.imported > 0) {
+            // One catalog rebuild for the whole import, delivered when this transaction commits
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new CreditOffersChangedEvent(null)));
+        }
+        
+        log.info("Credit offer import finished: {} rows read, {} imported, {} rejected",
+                report.rowsRead, report.imported, report.rejected);
+        return report.toDto();
+    }
+    
+    private void store(List<CreditOffer> chunk, long[] chunkRows, ImportReport report) {
+        try {
+            save(chunk);
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Credit offer import chunk of {} rows rolled back, storing its rows one by one: {}",
+                    chunk.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                CreditOffer offer = chunk.get(i);
+                // The rolled back insert left its generated id on the entity, it must be inserted as new
+                offer.setId(null);
+                try {
+                    save(List.of(offer));
+                    report.imported++;
+                } catch (RuntimeException rowFailure) {
+                    report.reject(chunkRows[i], "Row could not be stored: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+    
+    private void save(List<CreditOffer> offers) {
+        transactionTemplate.executeWithoutResult(status -> {
+            creditOfferRepository.saveAll(offers);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+    
+    /*
+     * Positions of the known columns in the header, -1 for optional columns that are absent
+     */
+    private record Columns(int amount, int interestRate, int termMonths, int financialEntity,
+                           int description, int requirements, int isActive) {
+        
+        static Columns of(String[] header) {
+            List<String> names = new ArrayList<>(header.length);
+            for (String name : header) {
+                names.add(name == null ? "" : name.trim());
+            }
+            return new Columns(required(names, "amount"), required(names, "interestRate"),
+                    required(names, "termMonths"), required(names, "financialEntity"),
+                    names.indexOf("description"), names.indexOf("requirements"), names.indexOf("isActive"));
+        }
+        
+        private static int required(List<String> names, String column) {
+            int position = names.indexOf(column);
+            if (position < 0) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+            return position;
+        }
+        
+        CreditOffer toCreditOffer(String[] values) {
+            BigDecimal amountValue = decimal(values, amount, "amount");
+            if (amountValue.signum() <= 0) {
+                throw new IllegalArgumentException("amount must be greater than zero");
+            }
+            BigDecimal interestRateValue = decimal(values, interestRate, "interestRate");
+            if (interestRateValue.signum() < 0) {
+                throw new IllegalArgumentException("interestRate must not be negative");
+            }
+            int termMonthsValue = integer(values, termMonths, "termMonths");
+            if (termMonthsValue <= 0) {
+                throw new IllegalArgumentException("termMonths must be greater than zero");
+            }
+            String financialEntityValue = text(values, financialEntity, "financialEntity");
+            if (financialEntityValue == null) {
+                throw new IllegalArgumentException("financialEntity is required");
+            }
+            String activeValue = value(values, isActive);
+            if (activeValue != null && !activeValue.equalsIgnoreCase("true") && !activeValue.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("isActive must be true or false");
+            }
+            return CreditOffer.builder()
+                    .amount(amountValue)
+                    .interestRate(interestRateValue)
+                    .termMonths(termMonthsValue)
+                    .financialEntity(financialEntityValue)
+                    .description(text(values, description, "description"))
+                    .requirements(text(values, requirements, "requirements"))
+                    .isActive(activeValue == null || Boolean.parseBoolean(activeValue))
+                    .build();
+        }
+        
+        private static BigDecimal decimal(String[] values, int position, String column) {
+            String value = value(values, position);
+            if (value == null) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a number");
+            }
+        }
+        
+        private static int integer(String[] values, int position, String column) {
+            String value = value(values, position);
+            if (value == null) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a whole number");
+            }
+        }
+        
+        private static String text(String[] values, int position, String column) {
+            String value = value(values, position);
+            if (value != null && value.length() > MAX_TEXT_LENGTH) {
+                throw new IllegalArgumentException(column + " must be at most " + MAX_TEXT_LENGTH + " characters");
+            }
+            return value;
+        }
+        
+        private static String value(String[] values, int position) {
+            if (position < 0 || position >= values.length || values[position] == null || values[position].isBlank()) {
+                return null;
+            }
+            return values[position];
+        }
+    }
+    
+    private static final class ImportReport {
+        
+        private final int maxErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+        
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+        
+        CreditOfferImportResultDto toDto() {
+            return CreditOfferImportResultDto.builder()
+                    .rowsRead(rowsRead)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .errorsTruncated(rejected > errors.size())
+                    .build();
+        }
+    }
+}
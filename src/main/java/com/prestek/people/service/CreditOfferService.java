@@ -3,14 +3,24 @@ package com.prestek.people.service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CreditOfferSearchCriteria;
+import com.prestek.people.dto.CursorPage;
 import com.prestek.people.model.CreditOffer;
 import com.prestek.people.repository.CreditOfferRepository;
+import com.prestek.people.repository.CreditOfferSpecifications;
+import com.prestek.people.service.ActiveCreditOfferCatalog.Snapshot;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,43 +32,92 @@ import lombok.extern.slf4j.Slf4j;
 public class CreditOfferService {
     
     private final CreditOfferRepository creditOfferRepository;
+    private final ActiveCreditOfferCatalog activeCatalog;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public List<CreditOfferDto> getAllCreditOffers() {
-        log.info("Fetching all credit offers");
-        return creditOfferRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<CreditOfferDto> getAllCreditOffers(Long cursor, int size) {
+        log.info("Fetching credit offers after cursor: {}", cursor);
+        List<CreditOfferDto> offers = creditOfferRepository.findDtosByIdGreaterThan(afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(offers, size, CreditOfferDto::getId);
     }
     
-    public List<CreditOfferDto> getActiveCreditOffers() {
-        log.info("Fetching active credit offers");
-        return creditOfferRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // Served from the in-memory catalog, no transaction or connection unless the catalog has to be built
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<CreditOfferDto> getActiveCreditOffers(Long cursor, int size) {
+        log.debug("Fetching active credit offers after cursor: {}", cursor);
+        return activeCatalogSnapshot().page(cursor, size);
     }
     
+    /*
+     * Method that returns the current snapshot of the active offers, building it if needed
+     *
+     * @return Snapshot, the active offers with their precomputed pricing
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Snapshot getActiveOffersSnapshot() {
+        return activeCatalogSnapshot();
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<CreditOfferDto> getCreditOfferById(Long id) {
         log.info("Fetching credit offer with id: {}", id);
         return creditOfferRepository.findById(id)
                 .map(this::convertToDto);
     }
     
-    public List<CreditOfferDto> getCreditOffersByFinancialEntity(String financialEntity) {
-        log.info("Fetching credit offers for financial entity: {}", financialEntity);
-        return creditOfferRepository.findByFinancialEntity(financialEntity)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /*
+     * Method that builds the amortization schedule of a credit offer
+     *
+     * @param id, the credit offer unique identifier
+     * @param amount, the loan amount, null to use the offer amount
+     * @return Optional<AmortizationSchedule>, the schedule or empty if the offer does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<AmortizationSchedule> getAmortizationSchedule(Long id, BigDecimal amount) {
+        log.info("Building amortization schedule for credit offer: {} and amount: {}", id, amount);
+        return creditOfferRepository.findById(id)
+                .map(offer -> AmortizationSchedule.of(offer.getId(), amount != null ? amount : offer.getAmount(),
+                        offer.getInterestRate(), offer.getTermMonths()));
     }
     
-    public List<CreditOfferDto> getCreditOffersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
-        log.info("Fetching credit offers in amount range: {} - {}", minAmount, maxAmount);
-        return creditOfferRepository.findActiveOffersByAmountRange(minAmount, maxAmount)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<CreditOfferDto> getCreditOffersByFinancialEntity(String financialEntity, Long cursor, int size) {
+        log.info("Fetching credit offers for financial entity: {} after cursor: {}", financialEntity, cursor);
+        List<CreditOfferDto> offers = creditOfferRepository.findDtosByFinancialEntityAndIdGreaterThan(
+                financialEntity, afterId(cursor), Limit.of(size + 1));
+        return CursorPage.of(offers, size, CreditOfferDto::getId);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<CreditOfferDto> getCreditOffersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Long cursor, int size) {
+        log.debug("Fetching credit offers in amount range: {} - {} after cursor: {}", minAmount, maxAmount, cursor);
+        return activeCatalogSnapshot().pageByAmount(minAmount, maxAmount, cursor, size);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<CreditOfferDto> getCreditOffersByMaxInterestRate(BigDecimal maxRate, Long cursor, int size) {
+        log.debug("Fetching credit offers with interest rate up to: {} after cursor: {}", maxRate, cursor);
+        return activeCatalogSnapshot().pageByMaxRate(maxRate, cursor, size);
+    }
+    
+    /*
+     * Method that searches credit offers by any combination of filters in a single query
+     *
+     * @param criteria, the search filters, null filters are ignored
+     * @param cursor, the id of the last offer of the previous page, null for the first page
+     * @param size, the page size
+     * @return CursorPage, the matching offers in id order
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CreditOfferDto> searchCreditOffers(CreditOfferSearchCriteria criteria, Long cursor, int size) {
+        log.info("Searching credit offers with criteria: {} after cursor: {}", criteria, cursor);
+        requireOrdered(criteria.getMinAmount(), criteria.getMaxAmount(), "amount");
+        requireOrdered(criteria.getMinTermMonths(), criteria.getMaxTermMonths(), "term months");
+        List<CreditOffer> offers = creditOfferRepository.findBy(
+                CreditOfferSpecifications.matching(criteria, afterId(cursor)),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        return CursorPage.of(offers, size, CreditOffer::getId, this::convertToDto);
     }
     
     public CreditOfferDto createCreditOffer(CreditOfferDto creditOfferDto) {
@@ -67,6 +126,7 @@ public class CreditOfferService {
         CreditOffer creditOffer = convertToEntity(creditOfferDto);
         CreditOffer savedCreditOffer = creditOfferRepository.save(creditOffer);
         log.info("Credit offer created successfully with id: {}", savedCreditOffer.getId());
+        eventPublisher.publishEvent(new CreditOffersChangedEvent(savedCreditOffer.getId()));
         
         return convertToDto(savedCreditOffer);
     }
@@ -79,6 +139,7 @@ public class CreditOfferService {
                     updateCreditOfferFields(existingOffer, creditOfferDto);
                     CreditOffer updatedOffer = creditOfferRepository.save(existingOffer);
                     log.info("Credit offer updated successfully with id: {}", updatedOffer.getId());
+                    eventPublisher.publishEvent(new CreditOffersChangedEvent(id));
                     return convertToDto(updatedOffer);
                 });
     }
@@ -89,6 +150,7 @@ public class CreditOfferService {
         if (creditOfferRepository.existsById(id)) {
             creditOfferRepository.deleteById(id);
             log.info("Credit offer deleted successfully with id: {}", id);
+            eventPublisher.publishEvent(new CreditOffersChangedEvent(id));
             return true;
         }
         
@@ -104,11 +166,66 @@ public class CreditOfferService {
                     offer.setIsActive(false);
                     CreditOffer updatedOffer = creditOfferRepository.save(offer);
                     log.info("Credit offer deactivated successfully with id: {}", updatedOffer.getId());
+                    eventPublisher.publishEvent(new CreditOffersChangedEvent(id));
                     return convertToDto(updatedOffer);
                 });
     }
     
-    private CreditOfferDto convertToDto(CreditOffer creditOffer) {
+    /*
+     * Method that rebuilds the active offer catalog once a change to the offers has committed.
+     * Runs outside the committed transaction and reads the offers from the primary, a lagging
+     * replica could miss the change; if the rebuild fails the catalog is dropped so the next
+     * lookup reads the database instead of serving offers that are out of date.
+     *
+     * @param event, the committed change
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCreditOffersChanged(CreditOffersChangedEvent event) {
+        log.debug("Credit offer {} changed, rebuilding active catalog", event.creditOfferId());
+        try {
+            rebuildActiveCatalog();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild active credit offer catalog: {}", e.getMessage());
+            activeCatalog.invalidate();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadActiveCatalog() {
+        try {
+            rebuildActiveCatalog();
+        } catch (RuntimeException e) {
+            log.warn("Could not load active credit offer catalog at startup, it will be built on first use: {}", e.getMessage());
+        }
+    }
+    
+    private Snapshot activeCatalogSnapshot() {
+        Snapshot snapshot = activeCatalog.current();
+        return snapshot != null ? snapshot : rebuildActiveCatalog();
+    }
+    
+    private Snapshot rebuildActiveCatalog() {
+        long generation = activeCatalog.nextGeneration();
+        List<CreditOfferDto> offers = creditOfferRepository.findByIsActiveTrue()
+                .stream()
+                .map(this::convertToDto)
+                .toList();
+        return activeCatalog.install(generation, offers);
+    }
+    
+    private <T extends Comparable<T>> void requireOrdered(T min, T max, String field) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Minimum " + field + " must not be greater than maximum " + field);
+        }
+    }
+    
+    private Long afterId(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+    
+    CreditOfferDto convertToDto(CreditOffer creditOffer) {
         return CreditOfferDto.builder()
                 .id(creditOffer.getId())
                 .amount(creditOffer.getAmount())
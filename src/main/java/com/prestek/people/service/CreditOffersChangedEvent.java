@@ -0,0 +1,9 @@
+package com.prestek.people.service;
+
+/*
+ * Event published when a credit offer is created, updated, deactivated or deleted,
+ * delivered to listeners once the transaction that made the change commits. The id is
+ * null when many offers changed at once, e.g. after an import
+ */
+public record CreditOffersChangedEvent(Long creditOfferId) {
+}
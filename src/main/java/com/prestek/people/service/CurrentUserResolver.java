@@ -0,0 +1,94 @@
+package com.prestek.people.service;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prestek.people.config.ClerkPrincipal;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.UsersChangedEvent.Change;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Service that resolves the authenticated caller to a local user id. The subject of the Clerk
+ * token is stored on the user the first time it is seen, matched by the token's email claim,
+ * and resolved subjects are kept in a bounded in-memory cache, so requests from a known caller
+ * need no query to find their user.
+ */
+@Service
+@Slf4j
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Long> userIdsBySubject;
+
+    public CurrentUserResolver(UserRepository userRepository, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                               @Value("${users.subject-cache.max-entries:10000}") long maxEntries) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.userIdsBySubject = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .<String, Long>build(), "users.by_subject");
+    }
+
+    /*
+     * Method that returns the id of the user behind the caller's token
+     *
+     * @param authentication, the caller's authentication
+     * @return Optional<Long>, the user id or empty if no user is linked to the token
+     */
+    public Optional<Long> resolveUserId(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof ClerkPrincipal principal)) {
+            return Optional.empty();
+        }
+        // A subject with no user is not cached, so it is linked as soon as the user signs up
+        return Optional.ofNullable(userIdsBySubject.get(principal.subject(), subject -> loadUserId(principal)));
+    }
+
+    /*
+     * Method that forgets the subjects of deleted users once the deletion commits
+     *
+     * @param event, the committed change
+     */
+    @TransactionalEventListener
+    public void onUsersChanged(UsersChangedEvent event) {
+        if (event.change() == Change.DELETED) {
+            userIdsBySubject.asMap().values().removeAll(event.userIds());
+        }
+    }
+
+    private Long loadUserId(ClerkPrincipal principal) {
+        try {
+            return transactionTemplate.execute(status -> userRepository.findIdByAuthSubject(principal.subject())
+                    .or(() -> {
+                        if (principal.email() == null) {
+                            return Optional.empty();
+                        }
+                        // Linked through the managed user, so the commit only updates its entry in the
+                        // second-level cache; a bulk update would evict every cached user
+                        return userRepository.findByEmail(principal.email())
+                                .filter(user -> user.getAuthSubject() == null)
+                                .map(user -> {
+                                    user.setAuthSubject(principal.subject());
+                                    return user.getId();
+                                });
+                    })
+                    .orElse(null));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Could not link token subject {} to user with email {}: {}", principal.subject(), principal.email(), e.getMessage());
+            return null;
+        }
+    }
+}
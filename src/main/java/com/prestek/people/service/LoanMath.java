@@ -0,0 +1,42 @@
+package com.prestek.people.service;
+
+/*
+ * Class with the loan formulas shared by the offer evaluation code. Works on primitive
+ * doubles so a whole catalog can be evaluated without allocating per offer; amounts are
+ * only rounded when they are returned to clients.
+ */
+public final class LoanMath {
+    
+    private LoanMath() {
+    }
+    
+    /*
+     * Method that computes the fixed monthly installment of an amortized loan
+     *
+     * @param principal, the loan amount
+     * @param annualRatePercent, the annual interest rate as a percentage, e.g. 12.5
+     * @param termMonths, the number of monthly installments
+     * @return double, the monthly installment or NaN if the term is not positive
+     */
+    public static double monthlyInstallment(double principal, double annualRatePercent, int termMonths) {
+        if (termMonths <= 0) {
+            return Double.NaN;
+        }
+        double monthlyRate = annualRatePercent / 100.0 / 12.0;
+        if (monthlyRate == 0.0) {
+            return principal / termMonths;
+        }
+        return principal * monthlyRate / (1.0 - Math.pow(1.0 + monthlyRate, -termMonths));
+    }
+    
+    /*
+     * Method that computes the debt-to-income ratio of a monthly debt
+     *
+     * @param monthlyDebt, the monthly expenses plus the new installment
+     * @param monthlyIncome, the monthly income
+     * @return double, the ratio or NaN if there is no income to compare with
+     */
+    public static double debtToIncome(double monthlyDebt, double monthlyIncome) {
+        return monthlyIncome > 0.0 ? monthlyDebt / monthlyIncome : Double.NaN;
+    }
+}
@@ -0,0 +1,113 @@
+package com.prestek.people.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.OfferEvaluationDto;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.ActiveCreditOfferCatalog.Snapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Service that prices every active credit offer for a user and ranks them. Installments
+ * and total costs come precomputed from the catalog snapshot, so a request only computes
+ * one debt-to-income ratio per offer and walks the snapshot's cost order; DTOs are built
+ * for the returned offers only.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OfferEligibilityService {
+    
+    private final UserRepository userRepository;
+    private final CreditOfferService creditOfferService;
+    
+    @Value("${offers.eligibility.max-debt-to-income:0.4}")
+    private double maxDebtToIncome;
+    
+    @Value("${offers.eligibility.parallel-threshold:50000}")
+    private int parallelThreshold;
+    
+    /*
+     * Method that ranks the active offers for a user: eligible offers first, each group
+     * ordered by total cost
+     *
+     * @param userId, the user unique identifier
+     * @param limit, the maximum number of offers to return
+     * @return Optional<List<OfferEvaluationDto>>, the ranked offers or empty if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<OfferEvaluationDto>> rankOffersForUser(Long userId, int limit) {
+        log.info("Ranking credit offers for user: {}", userId);
+        return userRepository.findById(userId)
+                .map(user -> rank(creditOfferService.getActiveOffersSnapshot(), user, limit));
+    }
+    
+    List<OfferEvaluationDto> rank(Snapshot snapshot, User user, int limit) {
+        double income = user.getMonthlyIncome() != null ? user.getMonthlyIncome() : 0.0;
+        double expenses = user.getMonthlyExpenses() != null ? user.getMonthlyExpenses() : 0.0;
+        double[] installments = snapshot.monthlyInstallments();
+        double[] ratios = new double[installments.length];
+        
+        // Each offer writes its own slot, so large catalogs can be split across cores;
+        // below the threshold the fork/join overhead costs more than the arithmetic
+        boolean parallel = installments.length >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+        IntStream positions = IntStream.range(0, installments.length);
+        (parallel ? positions.parallel() : positions)
+                .forEach(position -> ratios[position] = LoanMath.debtToIncome(expenses + installments[position], income));
+        
+        int[] byTotalCost = snapshot.positionsByTotalCost();
+        List<OfferEvaluationDto> ranked = new ArrayList<>(Math.min(limit, byTotalCost.length));
+        for (boolean eligiblePass : new boolean[] {true, false}) {
+            for (int position : byTotalCost) {
+                if (ranked.size() >= limit) {
+                    return ranked;
+                }
+                if (isEligible(ratios[position]) == eligiblePass) {
+                    ranked.add(toEvaluation(snapshot, position, ratios[position], eligiblePass, ranked.size() + 1));
+                }
+            }
+        }
+        return ranked;
+    }
+    
+    private boolean isEligible(double debtToIncome) {
+        // NaN (no income or an offer without pricing) is never eligible
+        return debtToIncome <= maxDebtToIncome;
+    }
+    
+    private OfferEvaluationDto toEvaluation(Snapshot snapshot, int position, double debtToIncome, boolean eligible, int rank) {
+        CreditOfferDto offer = snapshot.offers().get(position);
+        BigDecimal totalCost = money(snapshot.totalCosts()[position]);
+        return OfferEvaluationDto.builder()
+                .rank(rank)
+                .eligible(eligible)
+                .creditOfferId(offer.getId())
+                .financialEntity(offer.getFinancialEntity())
+                .amount(offer.getAmount())
+                .interestRate(offer.getInterestRate())
+                .termMonths(offer.getTermMonths())
+                .monthlyInstallment(money(snapshot.monthlyInstallments()[position]))
+                .totalCost(totalCost)
+                .totalInterest(totalCost != null && offer.getAmount() != null ? totalCost.subtract(offer.getAmount()) : null)
+                .debtToIncomeRatio(Double.isNaN(debtToIncome) ? null : BigDecimal.valueOf(debtToIncome).setScale(4, RoundingMode.HALF_UP))
+                .build();
+    }
+    
+    private BigDecimal money(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
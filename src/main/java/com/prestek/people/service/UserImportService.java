@@ -0,0 +1,284 @@
+package com.prestek.people.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.prestek.people.dto.UserDto;
+import com.prestek.people.dto.UserImportResultDto;
+import com.prestek.people.dto.UserImportResultDto.Outcome;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.UsersChangedEvent.Change;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Service that creates users in bulk from a JSON array or newline-delimited JSON stream.
+ * Users are read one at a time and handled in chunks: duplicates within the file are found
+ * with in-memory key sets, duplicates in the database with one email and one document number
+ * query per chunk, and the remaining users are batch-inserted in the chunk's transaction.
+ * Keys the user key filter rules out are left out of those queries. A chunk the database
+ * rejects is stored again one user per transaction, so only the users it refuses are reported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+    
+    private static final int MAX_TEXT_LENGTH = 255;
+    
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserKeyFilter userKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${users.import.chunk-size:500}")
+    private int chunkSize;
+    
+    /*
+     * Method that imports users, each chunk in its own transaction so a failing chunk does
+     * not undo the previous ones
+     *
+     * @param json, a JSON array of users or one JSON user per line
+     * @return List<UserImportResultDto>, the outcome of every user in input order
+     * @throws IOException, if the stream cannot be read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserImportResultDto> importUsers(InputStream json) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(UserDto.class);
+        List<UserImportResultDto> results = new ArrayList<>();
+        Set<String> emailsInFile = new HashSet<>();
+        Set<String> documentsInFile = new HashSet<>();
+        List<UserDto> chunk = new ArrayList<>(chunkSize);
+        
+        try (MappingIterator<UserDto> users = reader.readValues(json)) {
+            while (true) {
+                UserDto user;
+                try {
+                    if (!users.hasNextValue()) {
+                        break;
+                    }
+                    user = users.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resynchronize after malformed JSON, stop at this user
+                    importChunk(chunk, results, emailsInFile, documentsInFile);
+                    results.add(result(results.size(), null, null, Outcome.INVALID,
+                            "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+                    break;
+                }
+                chunk.add(user);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, results, emailsInFile, documentsInFile);
+                }
+            }
+        }
+        importChunk(chunk, results, emailsInFile, documentsInFile);
+        
+        log.info("User import finished: {} users read, {} created", results.size(),
+                results.stream().filter(result -> result.getOutcome() == Outcome.CREATED).count());
+        return results;
+    }
+    
+    private void importChunk(List<UserDto> chunk, List<UserImportResultDto> results,
+                             Set<String> emailsInFile, Set<String> documentsInFile) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long firstIndex = results.size();
+        UserImportResultDto[] outcomes = new UserImportResultDto[chunk.size()];
+        
+        // Reject invalid users and repeats of an earlier user in the file, whichever chunk it was in
+        List<Integer> candidates = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserDto user = chunk.get(i);
+            String invalid = validate(user);
+            if (invalid != null) {
+                outcomes[i] = result(firstIndex + i, null, user.getEmail(), Outcome.INVALID, invalid);
+            } else if (emailsInFile.contains(user.getEmail())) {
+                outcomes[i] = result(firstIndex + i, null, user.getEmail(), Outcome.DUPLICATE_EMAIL, "Email repeated in the file");
+            } else if (documentsInFile.contains(user.getDocumentNumber())) {
+                outcomes[i] = result(firstIndex + i, null, user.getEmail(), Outcome.DUPLICATE_DOCUMENT, "Document number repeated in the file");
+            } else {
+                // Only a user passing both checks claims its keys, a rejected one must not block a later user
+                emailsInFile.add(user.getEmail());
+                documentsInFile.add(user.getDocumentNumber());
+                candidates.add(i);
+            }
+        }
+        
+        if (!candidates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertCandidates(chunk, candidates, firstIndex, outcomes));
+            } catch (RuntimeException e) {
+                log.warn("User import chunk of {} users rolled back, storing its users one by one: {}",
+                        candidates.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                for (int i : candidates) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insertCandidates(chunk, List.of(i), firstIndex, outcomes));
+                    } catch (RuntimeException rowFailure) {
+                        // Nothing of this user was stored, a later user with the same keys may still be created
+                        emailsInFile.remove(chunk.get(i).getEmail());
+                        documentsInFile.remove(chunk.get(i).getDocumentNumber());
+                        outcomes[i] = failure(firstIndex + i, chunk.get(i), rowFailure);
+                    }
+                }
+            }
+        }
+        
+        for (UserImportResultDto outcome : outcomes) {
+            results.add(outcome);
+        }
+        chunk.clear();
+    }
+    
+    private void insertCandidates(List<UserDto> chunk, List<Integer> candidates, long firstIndex, UserImportResultDto[] outcomes) {
+        List<String> emails = new ArrayList<>(candidates.size());
+        List<String> documents = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            if (userKeyFilter.mightContainEmail(chunk.get(i).getEmail())) {
+                emails.add(chunk.get(i).getEmail());
+            }
+            if (userKeyFilter.mightContainDocumentNumber(chunk.get(i).getDocumentNumber())) {
+                documents.add(chunk.get(i).getDocumentNumber());
+            }
+        }
+        Set<String> existingEmails = existing(emails, userRepository::findExistingEmails);
+        Set<String> existingDocuments = existing(documents, userRepository::findExistingDocumentNumbers);
+        
+        List<Integer> inserted = new ArrayList<>(candidates.size());
+        List<User> users = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            UserDto user = chunk.get(i);
+            if (existingEmails.contains(user.getEmail())) {
+                outcomes[i] = result(firstIndex + i, null, user.getEmail(), Outcome.DUPLICATE_EMAIL, "Email already exists");
+            } else if (existingDocuments.contains(user.getDocumentNumber())) {
+                outcomes[i] = result(firstIndex + i, null, user.getEmail(), Outcome.DUPLICATE_DOCUMENT, "Document number already exists");
+            } else {
+                inserted.add(i);
+                users.add(toEntity(user));
+                userKeyFilter.add(user.getEmail(), user.getDocumentNumber());
+            }
+        }
+        
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+        eventPublisher.publishEvent(new UsersChangedEvent(Change.CREATED, users.stream().map(User::getId).toList(),
+                users.stream().map(User::getEmail).toList(), users.stream().map(User::getDocumentNumber).toList()));
+        for (int j = 0; j < users.size(); j++) {
+            int i = inserted.get(j);
+            outcomes[i] = result(firstIndex + i, users.get(j).getId(), users.get(j).getEmail(), Outcome.CREATED, null);
+        }
+    }
+    
+    /*
+     * Method that reports a user the database refused, a unique constraint violation from a user
+     * stored meanwhile is reported as the duplicated field
+     *
+     * @param index, the position of the user in the upload
+     * @param user, the user that was being stored
+     * @param failure, the error raised by its insert
+     * @return UserImportResultDto, the outcome of the user
+     */
+    private UserImportResultDto failure(long index, UserDto user, RuntimeException failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+                    return result(index, null, user.getEmail(), Outcome.DUPLICATE_EMAIL, "Email already exists");
+                }
+                if (constraint.contains(User.DOCUMENT_NUMBER_CONSTRAINT)) {
+                    return result(index, null, user.getEmail(), Outcome.DUPLICATE_DOCUMENT, "Document number already exists");
+                }
+            }
+        }
+        return result(index, null, user.getEmail(), Outcome.FAILED,
+                "User could not be stored: " + NestedExceptionUtils.getMostSpecificCause(failure).getMessage());
+    }
+    
+    private Set<String> existing(List<String> keys, Function<List<String>, List<String>> query) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>(query.apply(keys));
+        for (int i = existing.size(); i < keys.size(); i++) {
+            userKeyFilter.recordFalsePositive();
+        }
+        return existing;
+    }
+    
+    private String validate(UserDto user) {
+        if (isBlank(user.getFirstName()) || isBlank(user.getLastName())) {
+            return "First and last name are required";
+        }
+        if (isBlank(user.getEmail())) {
+            return "Email is required";
+        }
+        if (isBlank(user.getPhone())) {
+            return "Phone is required";
+        }
+        if (isBlank(user.getDocumentNumber())) {
+            return "Document number is required";
+        }
+        if (isTooLong(user.getFirstName()) || isTooLong(user.getLastName()) || isTooLong(user.getEmail())
+                || isTooLong(user.getPhone()) || isTooLong(user.getDocumentNumber()) || isTooLong(user.getEmploymentStatus())) {
+            return "Text fields must be at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        return null;
+    }
+    
+    private boolean isTooLong(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH;
+    }
+    
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    private User toEntity(UserDto user) {
+        return User.builder()
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .documentNumber(user.getDocumentNumber())
+                .monthlyIncome(user.getMonthlyIncome())
+                .monthlyExpenses(user.getMonthlyExpenses())
+                .creditScore(user.getCreditScore())
+                .employmentStatus(user.getEmploymentStatus())
+                .build();
+    }
+    
+    private UserImportResultDto result(long index, Long id, String email, Outcome outcome, String message) {
+        return UserImportResultDto.builder()
+                .index(index)
+                .id(id)
+                .email(email)
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,287 @@
+package com.prestek.people.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Class that holds a Bloom filter over the emails and document numbers of all users, so
+ * lookups of keys that were never stored are answered without a query. The filter has no
+ * false negatives: keys are added before their insert and again once it commits, and until
+ * a filter is installed every key is reported as possibly present. A user is counted once,
+ * when the rebuild reads it or when its insert commits. Bloom filters cannot forget keys, so
+ * deleted users are counted as stale, and the owner rebuilds the filter from the database
+ * once they pass a share of the counted users or the users outgrow the size of the filter.
+ */
+@Component
+public class UserKeyFilter {
+
+    private static final long EMAIL_SEED = 0x9E3779B97F4A7C15L;
+    private static final long DOCUMENT_NUMBER_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final double rebuildStaleRatio;
+    private final AtomicReference<Bloom> current = new AtomicReference<>();
+    private final AtomicReference<Bloom> building = new AtomicReference<>();
+    private final AtomicLong staleUsers = new AtomicLong();
+    private final Counter definiteMisses;
+    private final Counter maybePresent;
+    private final Counter unavailable;
+    private final Counter falsePositives;
+    private final Timer rebuilds;
+
+    public UserKeyFilter(MeterRegistry meterRegistry,
+                         @Value("${users.key-filter.expected-users:1000000}") long expectedUsers,
+                         @Value("${users.key-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${users.key-filter.rebuild-stale-ratio:0.1}") double rebuildStaleRatio) {
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildStaleRatio = rebuildStaleRatio;
+        this.definiteMisses = lookups(meterRegistry, "definite_miss");
+        this.maybePresent = lookups(meterRegistry, "maybe_present");
+        this.unavailable = lookups(meterRegistry, "unavailable");
+        this.falsePositives = Counter.builder("users.key_filter.false_positives")
+                .description("Keys the filter reported as possibly present that the database did not have")
+                .register(meterRegistry);
+        this.rebuilds = Timer.builder("users.key_filter.rebuild")
+                .description("Time to rebuild the user key filter from the database")
+                .register(meterRegistry);
+        Gauge.builder("users.key_filter.false_positive_rate", this, UserKeyFilter::observedFalsePositiveRate)
+                .description("False positives over all lookups of keys the database did not have")
+                .register(meterRegistry);
+        Gauge.builder("users.key_filter.expected_false_positive_rate", current, filter -> filter.get() != null ? filter.get().expectedFalsePositiveRate() : 0)
+                .description("False positive rate expected from the bits set in the current filter")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(email, EMAIL_SEED);
+    }
+
+    public boolean mightContainDocumentNumber(String documentNumber) {
+        return mightContain(documentNumber, DOCUMENT_NUMBER_SEED);
+    }
+
+    /*
+     * Method that records a possibly present key the database did not have
+     */
+    public void recordFalsePositive() {
+        if (current.get() != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /*
+     * Method that adds the keys of a user about to be inserted to the installed filter and to the
+     * one being rebuilt, without counting the user: the insert may still fail, and an extra key
+     * only costs a false positive
+     *
+     * @param email, the email of the user
+     * @param documentNumber, the document number of the user
+     */
+    public void add(String email, String documentNumber) {
+        Bloom installed = current.get();
+        if (installed != null) {
+            installed.addKeys(email, documentNumber);
+        }
+        Bloom rebuilding = building.get();
+        if (rebuilding != null) {
+            rebuilding.addKeys(email, documentNumber);
+        }
+    }
+
+    /*
+     * Method that adds the keys of a user whose insert committed and counts the user, again in
+     * case a rebuild started reading the database after the keys were added before the insert
+     *
+     * @param email, the email of the user
+     * @param documentNumber, the document number of the user
+     * @return boolean, true if the users passed the number the filter was sized for and it should be rebuilt
+     */
+    public boolean addCreated(String email, String documentNumber) {
+        Bloom installed = current.get();
+        if (installed != null) {
+            installed.add(email, documentNumber);
+        }
+        Bloom rebuilding = building.get();
+        if (rebuilding != null) {
+            rebuilding.add(email, documentNumber);
+        }
+        return installed != null && rebuilding == null && installed.users() > installed.capacity;
+    }
+
+    /*
+     * Method that counts deleted users whose keys are still in the filter
+     *
+     * @param users, the number of users deleted
+     * @return boolean, true if stale keys passed the rebuild ratio and the filter should be rebuilt
+     */
+    public boolean markRemoved(long users) {
+        long stale = staleUsers.addAndGet(users);
+        Bloom installed = current.get();
+        return installed != null && building.get() == null && stale > rebuildStaleRatio * installed.users();
+    }
+
+    /*
+     * Method that starts a rebuild, keys added from now on also go to the new filter
+     *
+     * @param users, the number of users about to be read, used to size the filter
+     * @return Bloom, the empty filter to fill, or null if a rebuild is already in progress
+     */
+    public Bloom beginRebuild(long users) {
+        Bloom rebuilt = new Bloom(Math.max(expectedUsers, users + users / 2), falsePositiveRate, staleUsers.get(), System.nanoTime());
+        return building.compareAndSet(null, rebuilt) ? rebuilt : null;
+    }
+
+    /*
+     * Method that installs a filled filter, deletions counted before it started are now reflected
+     *
+     * @param rebuilt, the filter returned by beginRebuild with every stored user added
+     */
+    public void install(Bloom rebuilt) {
+        current.set(rebuilt);
+        staleUsers.addAndGet(-rebuilt.staleUsersAtStart);
+        building.compareAndSet(rebuilt, null);
+        rebuilds.record(System.nanoTime() - rebuilt.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /*
+     * Method that abandons a failed rebuild, the installed filter stays in place
+     *
+     * @param rebuilt, the filter returned by beginRebuild
+     */
+    public void abandonRebuild(Bloom rebuilt) {
+        building.compareAndSet(rebuilt, null);
+    }
+
+    private boolean mightContain(String key, long seed) {
+        Bloom installed = current.get();
+        if (installed == null || key == null) {
+            unavailable.increment();
+            return true;
+        }
+        boolean result = installed.mightContain(key, seed);
+        (result ? maybePresent : definiteMisses).increment();
+        return result;
+    }
+
+    private double observedFalsePositiveRate() {
+        double negatives = falsePositives.count() + definiteMisses.count();
+        return negatives > 0 ? falsePositives.count() / negatives : 0;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.key_filter.lookups")
+                .description("User email and document number lookups by the filter's answer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /*
+     * Bit array sized for two keys per expected user at the configured false positive rate.
+     * Bit positions come from double hashing one 64-bit hash per key, bits are only ever set,
+     * so concurrent adds and lookups need no locking.
+     */
+    public static final class Bloom {
+
+        private final AtomicLongArray words;
+        private final long capacity;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLong setBits = new AtomicLong();
+        private final AtomicLong users = new AtomicLong();
+        private final long staleUsersAtStart;
+        private final long startNanos;
+
+        Bloom(long expectedUsers, double falsePositiveRate, long staleUsersAtStart, long startNanos) {
+            this.capacity = Math.max(1, expectedUsers);
+            long keys = capacity * 2;
+            long optimalBits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / keys * Math.log(2)));
+            this.staleUsersAtStart = staleUsersAtStart;
+            this.startNanos = startNanos;
+        }
+
+        // Adds the keys of a stored user and counts it
+        public void add(String email, String documentNumber) {
+            addKeys(email, documentNumber);
+            users.incrementAndGet();
+        }
+
+        private void addKeys(String email, String documentNumber) {
+            if (email != null) {
+                set(hash(email, EMAIL_SEED));
+            }
+            if (documentNumber != null) {
+                set(hash(documentNumber, DOCUMENT_NUMBER_SEED));
+            }
+        }
+
+        boolean mightContain(String key, long seed) {
+            long hash = hash(key, seed);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long users() {
+            return users.get();
+        }
+
+        long bits() {
+            return bits;
+        }
+
+        int hashes() {
+            return hashes;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) setBits.get() / bits, hashes);
+        }
+
+        private void set(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bits);
+                long mask = 1L << bit;
+                if ((words.getAndUpdate((int) (bit >>> 6), word -> word | mask) & mask) == 0) {
+                    setBits.incrementAndGet();
+                }
+            }
+        }
+
+        // FNV-1a over the UTF-16 chars, spread by the MurmurHash3 finalizer
+        private static long hash(String key, long seed) {
+            long hash = seed ^ 0xCBF29CE484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.prestek.people.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.prestek.people.dto.UserDto;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/*
+ * Class that caches user lookups by id and by email. Each cache is bounded and expires its
+ * entries; lookups that found no user are cached too, for a shorter time, so repeated probes
+ * of a missing id or email do not reach the database. Cached DTOs are shared between callers
+ * and must not be modified. Entries are invalidated once a change to the user commits.
+ */
+@Component
+public class UserLookupCache {
+
+    private final Cache<Long, Optional<UserDto>> byId;
+    private final Cache<String, Optional<UserDto>> byEmail;
+
+    public UserLookupCache(MeterRegistry meterRegistry,
+                           @Value("${users.cache.max-entries:10000}") long maxEntries,
+                           @Value("${users.cache.ttl-ms:300000}") long ttlMs,
+                           @Value("${users.cache.negative-ttl-ms:30000}") long negativeTtlMs) {
+        this.byId = monitor(meterRegistry, build(maxEntries, ttlMs, negativeTtlMs), "users.by_id");
+        this.byEmail = monitor(meterRegistry, build(maxEntries, ttlMs, negativeTtlMs), "users.by_email");
+    }
+
+    /*
+     * Method that returns the cached lookup of a user id, loading it on a miss
+     *
+     * @param id, the user id
+     * @param loader, the database lookup, called at most once per id at a time
+     * @return Optional<UserDto>, the user or empty if it does not exist
+     */
+    public Optional<UserDto> getById(Long id, Function<Long, Optional<UserDto>> loader) {
+        return byId.get(id, loader);
+    }
+
+    /*
+     * Method that returns the cached lookup of a user email, loading it on a miss
+     *
+     * @param email, the user email
+     * @param loader, the database lookup, called at most once per email at a time
+     * @return Optional<UserDto>, the user or empty if it does not exist
+     */
+    public Optional<UserDto> getByEmail(String email, Function<String, Optional<UserDto>> loader) {
+        return byEmail.get(email, loader);
+    }
+
+    /*
+     * Method that drops the cached lookups of changed users, including cached misses
+     *
+     * @param ids, the ids of the users
+     * @param emails, the emails of the users
+     */
+    public void invalidate(Collection<Long> ids, Collection<String> emails) {
+        byId.invalidateAll(ids);
+        byEmail.invalidateAll(emails);
+    }
+
+    private static <K> Cache<K, Optional<UserDto>> build(long maxEntries, long ttlMs, long negativeTtlMs) {
+        Duration ttl = Duration.ofMillis(ttlMs);
+        Duration negativeTtl = Duration.ofMillis(negativeTtlMs);
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.<K, Optional<UserDto>>creating((key, user) -> user.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    // cache.gets, cache.evictions, cache.size and cache.puts come from the Caffeine binder,
+    // which only reports load latency for loading caches
+    private static <K> Cache<K, Optional<UserDto>> monitor(MeterRegistry meterRegistry, Cache<K, Optional<UserDto>> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        FunctionTimer.builder("users.cache.load", cache, c -> c.stats().loadCount(), c -> c.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                .description("Database lookups made on cache misses and the time they took")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("users.cache.hit_ratio", cache, c -> c.stats().hitRate())
+                .description("Share of lookups answered from the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        return cache;
+    }
+}
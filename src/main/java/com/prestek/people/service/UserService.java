@@ -1,15 +1,27 @@
 package com.prestek.people.service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.prestek.people.dto.CursorPage;
 import com.prestek.people.dto.UserDto;
 import com.prestek.people.model.User;
 import com.prestek.people.repository.UserRepository;
+import com.prestek.people.repository.UserRepository.KeysView;
+import com.prestek.people.service.UsersChangedEvent.Change;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,40 +33,58 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final UserKeyFilter userKeyFilter;
+    private final UserLookupCache userLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public List<UserDto> getAllUsers() {
-        log.info("Fetching all users");
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Value("${users.key-filter.rebuild-page-size:10000}")
+    private int keyFilterPageSize;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getAllUsers(Long cursor, int size) {
+        log.info("Fetching users after cursor: {}", cursor);
+        List<UserDto> users = userRepository.findDtosByIdGreaterThan(cursor != null ? cursor : 0L, Limit.of(size + 1));
+        return CursorPage.of(users, size, UserDto::getId);
     }
     
+    // Lookups join a caller's transaction but do not start one, a cache hit needs no connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserDto> getUserById(Long id) {
         log.info("Fetching user with id: {}", id);
-        return userRepository.findById(id)
-                .map(this::convertToDto);
+        return userLookupCache.getById(id, key -> userRepository.findById(key)
+                .map(this::convertToDto));
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserDto> getUserByEmail(String email) {
         log.info("Fetching user with email: {}", email);
-        return userRepository.findByEmail(email)
-                .map(this::convertToDto);
+        if (!userKeyFilter.mightContainEmail(email)) {
+            return Optional.empty();
+        }
+        return userLookupCache.getByEmail(email, key -> {
+            Optional<UserDto> user = userRepository.findByEmail(key)
+                    .map(this::convertToDto);
+            if (user.isEmpty()) {
+                userKeyFilter.recordFalsePositive();
+            }
+            return user;
+        });
     }
     
     public UserDto createUser(UserDto userDto) {
         log.info("Creating new user with email: {}", userDto.getEmail());
         
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            throw new IllegalArgumentException("User with email already exists: " + userDto.getEmail());
-        }
-        
-        if (userRepository.existsByDocumentNumber(userDto.getDocumentNumber())) {
-            throw new IllegalArgumentException("User with document number already exists: " + userDto.getDocumentNumber());
-        }
-        
+        // One insert, duplicates are rejected by the unique constraints instead of checked beforehand
         User user = convertToEntity(userDto);
-        User savedUser = userRepository.save(user);
+        // Keys go into the filter before the insert so no lookup can miss a committed user
+        userKeyFilter.add(user.getEmail(), user.getDocumentNumber());
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e, userDto);
+        }
+        eventPublisher.publishEvent(UsersChangedEvent.of(Change.CREATED, savedUser.getId(), savedUser.getEmail(), savedUser.getDocumentNumber()));
         log.info("User created successfully with id: {}", savedUser.getId());
         
         return convertToDto(savedUser);
@@ -67,6 +97,7 @@ public class UserService {
                 .map(existingUser -> {
                     updateUserFields(existingUser, userDto);
                     User updatedUser = userRepository.save(existingUser);
+                    eventPublisher.publishEvent(UsersChangedEvent.of(Change.UPDATED, id, updatedUser.getEmail(), updatedUser.getDocumentNumber()));
                     log.info("User updated successfully with id: {}", updatedUser.getId());
                     return convertToDto(updatedUser);
                 });
@@ -75,8 +106,10 @@ public class UserService {
     public boolean deleteUser(Long id) {
         log.info("Deleting user with id: {}", id);
         
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
+        Optional<User> user = userRepository.findById(id);
+        if (user.isPresent()) {
+            userRepository.delete(user.get());
+            eventPublisher.publishEvent(UsersChangedEvent.of(Change.DELETED, id, user.get().getEmail(), user.get().getDocumentNumber()));
             log.info("User deleted successfully with id: {}", id);
             return true;
         }
@@ -85,7 +118,93 @@ public class UserService {
         return false;
     }
     
-    private UserDto convertToDto(User user) {
+    /*
+     * Method that applies a committed change to the in-memory views of the users: drops their
+     * cached lookups, counts created users in the key filter and adds their keys again in case
+     * a rebuild was reading the database meanwhile, and rebuilds the filter once the users
+     * outgrow it or enough deleted users left stale keys in it
+     *
+     * @param event, the committed change
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onUsersChanged(UsersChangedEvent event) {
+        userLookupCache.invalidate(event.userIds(), event.emails());
+        if (event.change() == Change.CREATED) {
+            boolean outgrown = false;
+            for (int i = 0; i < event.emails().size(); i++) {
+                outgrown |= userKeyFilter.addCreated(event.emails().get(i), event.documentNumbers().get(i));
+            }
+            if (outgrown) {
+                loadKeyFilter();
+            }
+        } else if (event.change() == Change.DELETED && userKeyFilter.markRemoved(event.userIds().size())) {
+            loadKeyFilter();
+        }
+    }
+    
+    /*
+     * Method that builds the user key filter from the database; while it is missing every
+     * lookup goes to the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadKeyFilter() {
+        try {
+            rebuildKeyFilter();
+        } catch (RuntimeException e) {
+            log.warn("Could not build user key filter, lookups will query the database: {}", e.getMessage());
+        }
+    }
+    
+    private void rebuildKeyFilter() {
+        UserKeyFilter.Bloom rebuilt = userKeyFilter.beginRebuild(userRepository.count());
+        if (rebuilt == null) {
+            return;
+        }
+        try {
+            // Each page is its own short query, users inserted meanwhile arrive through onUsersChanged
+            long afterId = 0L;
+            List<KeysView> page;
+            do {
+                page = userRepository.findKeysByIdGreaterThan(afterId, Limit.of(keyFilterPageSize));
+                for (KeysView keys : page) {
+                    rebuilt.add(keys.getEmail(), keys.getDocumentNumber());
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == keyFilterPageSize);
+            userKeyFilter.install(rebuilt);
+            log.info("User key filter rebuilt with {} users", rebuilt.users());
+        } catch (RuntimeException e) {
+            userKeyFilter.abandonRebuild(rebuilt);
+            throw e;
+        }
+    }
+    
+    /*
+     * Method that maps a unique constraint violation to the message of the duplicated field
+     *
+     * @param e, the violation raised by the insert
+     * @param userDto, the user that was being created
+     * @return IllegalArgumentException, the duplicate error
+     * @throws DataIntegrityViolationException, if the violation is not a duplicate email or document number
+     */
+    private IllegalArgumentException duplicateUser(DataIntegrityViolationException e, UserDto userDto) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return new IllegalArgumentException("User with email already exists: " + userDto.getEmail());
+        }
+        if (constraint.contains(User.DOCUMENT_NUMBER_CONSTRAINT)) {
+            return new IllegalArgumentException("User with document number already exists: " + userDto.getDocumentNumber());
+        }
+        throw e;
+    }
+    
+    UserDto convertToDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
                 .firstName(user.getFirstName())
@@ -0,0 +1,19 @@
+package com.prestek.people.service;
+
+import java.util.List;
+
+/*
+ * Event published when users are created, updated or deleted, delivered to listeners once
+ * the transaction that made the change commits. Carries the id, email and document number
+ * of every changed user, in the same order
+ */
+public record UsersChangedEvent(Change change, List<Long> userIds, List<String> emails, List<String> documentNumbers) {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UsersChangedEvent of(Change change, Long userId, String email, String documentNumber) {
+        return new UsersChangedEvent(change, List.of(userId), List.of(email), List.of(documentNumber));
+    }
+}
@@ -0,0 +1,62 @@
+-- Baseline schema, the tables Hibernate generated while the schema came from ddl-auto=update.
+-- Every statement is conditional, so databases created that way keep their tables; V3 adds
+-- what the users table of those databases lacks
+
+CREATE SEQUENCE IF NOT EXISTS ${schema}"users_seq" START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ${schema}"credit_offers_seq" START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ${schema}"applications_seq" START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS ${schema}"users" (
+    "id" bigint NOT NULL,
+    "first_name" varchar(255) NOT NULL,
+    "last_name" varchar(255) NOT NULL,
+    "email" varchar(255) NOT NULL,
+    "phone" varchar(255) NOT NULL,
+    "document_number" varchar(255) NOT NULL,
+    "auth_subject" varchar(255),
+    "monthly_income" float(53),
+    "monthly_expenses" float(53),
+    "credit_score" integer,
+    "employment_status" varchar(255),
+    "created_at" timestamp(6),
+    "updated_at" timestamp(6),
+    PRIMARY KEY ("id"),
+    CONSTRAINT uk_users_email UNIQUE ("email"),
+    CONSTRAINT uk_users_document_number UNIQUE ("document_number"),
+    CONSTRAINT uk_users_auth_subject UNIQUE ("auth_subject")
+);
+
+CREATE TABLE IF NOT EXISTS ${schema}"credit_offers" (
+    "id" bigint NOT NULL,
+    "amount" numeric(38,2) NOT NULL,
+    "interest_rate" numeric(38,2) NOT NULL,
+    "term_months" integer NOT NULL,
+    "financial_entity" varchar(255) NOT NULL,
+    "description" varchar(255),
+    "requirements" varchar(255),
+    "is_active" boolean NOT NULL,
+    "created_at" timestamp(6),
+    "updated_at" timestamp(6),
+    PRIMARY KEY ("id")
+);
+
+CREATE INDEX IF NOT EXISTS idx_credit_offers_active_entity_amount ON ${schema}"credit_offers" ("is_active", "financial_entity", "amount");
+CREATE INDEX IF NOT EXISTS idx_credit_offers_active_amount_rate ON ${schema}"credit_offers" ("is_active", "amount", "interest_rate");
+CREATE INDEX IF NOT EXISTS idx_credit_offers_active_rate_term ON ${schema}"credit_offers" ("is_active", "interest_rate", "term_months");
+
+CREATE TABLE IF NOT EXISTS ${schema}"applications" (
+    "id" bigint NOT NULL,
+    "status" varchar(255) NOT NULL CHECK ("status" IN ('PENDING', 'UNDER_REVIEW', 'APPROVED', 'REJECTED', 'CANCELLED')),
+    "application_date" timestamp(6),
+    "review_date" timestamp(6),
+    "approval_date" timestamp(6),
+    "notes" varchar(255),
+    "rejection_reason" varchar(255),
+    "created_at" timestamp(6),
+    "updated_at" timestamp(6),
+    "user_id" bigint NOT NULL,
+    "credit_offer_id" bigint NOT NULL,
+    PRIMARY KEY ("id"),
+    CONSTRAINT fk_applications_user FOREIGN KEY ("user_id") REFERENCES ${schema}"users" ("id"),
+    CONSTRAINT fk_applications_credit_offer FOREIGN KEY ("credit_offer_id") REFERENCES ${schema}"credit_offers" ("id")
+);
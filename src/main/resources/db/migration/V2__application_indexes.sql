@@ -0,0 +1,7 @@
+-- Composite indexes for the application lookups, equality columns first:
+-- (user_id, status) serves the lookups by user and status and the count by user,
+-- (credit_offer_id, status) the lookups by offer and status,
+-- (status, application_date) the lookups by status and the export's status and date range
+CREATE INDEX IF NOT EXISTS idx_applications_user_status ON ${schema}"applications" ("user_id", "status");
+CREATE INDEX IF NOT EXISTS idx_applications_credit_offer_status ON ${schema}"applications" ("credit_offer_id", "status");
+CREATE INDEX IF NOT EXISTS idx_applications_status_date ON ${schema}"applications" ("status", "application_date");
@@ -0,0 +1,12 @@
+-- Completes a users table created by ddl-auto=update before the schema was migrated, which V1
+-- skipped: the token subject column and the named unique keys signup maps violations by.
+-- Unique indexes are used because PostgreSQL has no ADD CONSTRAINT IF NOT EXISTS; on PostgreSQL
+-- databases created by V1 the constraints' own indexes already carry these names
+ALTER TABLE ${schema}"users" ADD COLUMN IF NOT EXISTS "auth_subject" varchar(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email ON ${schema}"users" ("email");
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_document_number ON ${schema}"users" ("document_number");
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_auth_subject ON ${schema}"users" ("auth_subject");
+
+-- The unnamed unique key PostgreSQL generated for the email column, it would report duplicates first
+ALTER TABLE ${schema}"users" DROP CONSTRAINT IF EXISTS "users_email_key";
@@ -0,0 +1,77 @@
+package com.prestek.people.config;
+
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.repository.CreditOfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for IdSequenceAligner with rows whose ids were assigned
+ * before the entities used sequences
+ */
+@DataJpaTest
+@Import(IdSequenceAligner.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@DisplayName("IdSequenceAligner Tests")
+class IdSequenceAlignerTest {
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        creditOfferRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should hand out ids above the ids already stored")
+    void shouldMoveSequencePastStoredIds() {
+        Long id = creditOfferRepository.save(newCreditOffer()).getId();
+        jdbcTemplate.update("UPDATE \"credit_offers\" SET \"id\" = 1000 WHERE \"id\" = ?", id);
+
+        idSequenceAligner.afterPropertiesSet();
+
+        assertThat(creditOfferRepository.save(newCreditOffer()).getId()).isGreaterThan(1000L);
+    }
+
+    @Test
+    @DisplayName("Should leave a sequence that is already ahead of the stored ids")
+    void shouldKeepSequenceAheadOfStoredIds() {
+        Long first = creditOfferRepository.save(newCreditOffer()).getId();
+
+        idSequenceAligner.afterPropertiesSet();
+
+        Long second = creditOfferRepository.save(newCreditOffer()).getId();
+        assertThat(second).isGreaterThan(first);
+    }
+
+    private CreditOffer newCreditOffer() {
+        return CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan")
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.prestek.people.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for JwksKeyProvider against a local JWKS stand-in covering
+ * refresh stampedes, slow or failing endpoints and key rotation
+ */
+@DisplayName("JwksKeyProvider Tests")
+class JwksKeyProviderTest {
+
+    private JwksStubServer server;
+    private JwksKeyProvider keyProvider;
+    private RSAKey signingKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        server = new JwksStubServer();
+        server.serveKeys(List.of(signingKey.toPublicJWK()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (keyProvider != null) {
+            keyProvider.close();
+        }
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should load keys in the background and serve them from memory")
+    void shouldServeKeysFromMemory() {
+        keyProvider = newProvider(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        keyProvider.start();
+
+        assertThat(keyProvider.getVerifier("key-1")).isNotNull();
+        assertThat(keyProvider.getVerifier("key-1")).isNotNull();
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should issue a single JWKS request when many requests miss at once")
+    void shouldFetchOnceUnderConcurrentLookups() throws Exception {
+        server.setDelayMillis(300);
+        keyProvider = newProvider(Duration.ZERO, Duration.ofSeconds(2));
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<JWSVerifier>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return keyProvider.getVerifier("key-1");
+                }));
+            }
+            startSignal.countDown();
+            for (Future<JWSVerifier> result : results) {
+                assertThat(result.get()).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep serving current keys while a slow refresh is running")
+    void shouldNotBlockOnSlowRefresh() {
+        keyProvider = newProvider(Duration.ZERO, Duration.ofSeconds(2));
+        keyProvider.refresh().join();
+        server.setDelayMillis(1500);
+
+        keyProvider.refresh();
+        long start = System.nanoTime();
+        JWSVerifier verifier = keyProvider.getVerifier("key-1");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(verifier).isNotNull();
+        assertThat(elapsedMillis).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("Should keep serving stale keys when the JWKS endpoint fails")
+    void shouldServeStaleKeysOnFailure() {
+        keyProvider = newProvider(Duration.ZERO, Duration.ofSeconds(2));
+        keyProvider.refresh().join();
+        server.failWith(500);
+
+        assertThatThrownBy(() -> keyProvider.refresh().join()).hasCauseInstanceOf(Exception.class);
+        assertThat(keyProvider.getVerifier("key-1")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep a single retry pending while the JWKS endpoint keeps failing")
+    void shouldKeepSingleRetryPending() throws InterruptedException {
+        server.failWith(500);
+        keyProvider = newProvider(Duration.ZERO, Duration.ofSeconds(2));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> keyProvider.refresh().join()).hasCauseInstanceOf(Exception.class);
+        }
+        // Three failed refreshes, then the single pending retry after a second
+        awaitRequestCount(4, Duration.ofSeconds(5));
+
+        // That retry is the fourth failure in a row, the next one backs off to eight seconds
+        Thread.sleep(500);
+        assertThat(server.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should give up waiting on a refresh that exceeds the timeout")
+    void shouldTimeOutSlowFirstLoad() {
+        server.setDelayMillis(3000);
+        keyProvider = new JwksKeyProvider(server.url(), Duration.ofHours(1), Duration.ZERO,
+                Duration.ofMillis(200), Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        JWSVerifier verifier = keyProvider.getVerifier("key-1");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(verifier).isNull();
+        assertThat(elapsedMillis).isLessThan(1500);
+    }
+
+    @Test
+    @DisplayName("Should rate limit refreshes triggered by unknown key ids")
+    void shouldRateLimitUnknownKeyRefreshes() {
+        keyProvider = newProvider(Duration.ofMinutes(1), Duration.ofSeconds(2));
+        keyProvider.refresh().join();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(keyProvider.getVerifier("unknown-" + i)).isNull();
+        }
+
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should pick up a rotated key on first use of its key id")
+    void shouldPickUpRotatedKey() throws JOSEException {
+        keyProvider = newProvider(Duration.ZERO, Duration.ofSeconds(2));
+        keyProvider.refresh().join();
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        server.serveKeys(List.of(signingKey.toPublicJWK(), rotatedKey.toPublicJWK()));
+
+        assertThat(keyProvider.getVerifier("key-2")).isNotNull();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    private void awaitRequestCount(int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (server.getRequestCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(expected);
+    }
+
+    private JwksKeyProvider newProvider(Duration minRefreshInterval, Duration maxWait) {
+        return new JwksKeyProvider(server.url(), Duration.ofHours(1), minRefreshInterval,
+                Duration.ofSeconds(1), maxWait);
+    }
+}
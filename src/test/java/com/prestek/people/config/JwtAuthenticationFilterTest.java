@@ -0,0 +1,123 @@
+package com.prestek.people.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for JwtAuthenticationFilter using locally generated RSA keys served
+ * from a JWKS stand-in
+ */
+@DisplayName("JwtAuthenticationFilter Tests")
+class JwtAuthenticationFilterTest {
+
+    private static final String ISSUER = "https://test-issuer.clerk.accounts.dev";
+
+    private JwksStubServer server;
+    private JwksKeyProvider keyProvider;
+    private VerifiedTokenCache tokenCache;
+    private JwtAuthenticationFilter filter;
+    private RSAKey signingKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        server = new JwksStubServer();
+        server.serveKeys(List.of(signingKey.toPublicJWK()));
+        keyProvider = new JwksKeyProvider(server.url(), Duration.ofHours(1), Duration.ofSeconds(30),
+                Duration.ofSeconds(1), Duration.ofSeconds(2));
+        tokenCache = new VerifiedTokenCache(100);
+        filter = new JwtAuthenticationFilter(ISSUER, keyProvider, tokenCache);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        keyProvider.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should authenticate a valid token and cache the verification")
+    void shouldAuthenticateValidToken() throws Exception {
+        String token = sign(signingKey, ISSUER, "admin");
+
+        MockHttpServletResponse response = doFilter(token);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("user_123");
+        assertThat(authentication.getPrincipal()).isEqualTo(new ClerkPrincipal("user_123", "john.doe@example.com"));
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(tokenCache.size()).isEqualTo(1);
+
+        SecurityContextHolder.clearContext();
+        doFilter(token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user_123");
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with a different key")
+    void shouldRejectInvalidSignature() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+
+        MockHttpServletResponse response = doFilter(sign(otherKey, ISSUER, "admin"));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a token from another issuer")
+    void shouldRejectInvalidIssuer() throws Exception {
+        MockHttpServletResponse response = doFilter(sign(signingKey, "https://evil.example.com", "admin"));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getErrorMessage()).isEqualTo("Invalid issuer");
+    }
+
+    private MockHttpServletResponse doFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private String sign(RSAKey key, String issuer, String role) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user_123")
+                .issuer(issuer)
+                .claim("role", role)
+                .claim("email", "john.doe@example.com")
+                .expirationTime(new Date(System.currentTimeMillis() + 600000))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
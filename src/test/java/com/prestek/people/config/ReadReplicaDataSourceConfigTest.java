@@ -0,0 +1,215 @@
+package com.prestek.people.config;
+
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.ApplicationRepository;
+import com.prestek.people.repository.CreditOfferRepository;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.service.ActiveCreditOfferCatalog;
+import com.prestek.people.service.ApplicationService;
+import com.prestek.people.service.CreditOfferService;
+import com.prestek.people.service.CreditOffersChangedEvent;
+import com.prestek.people.service.UserKeyFilter;
+import com.prestek.people.service.UserLookupCache;
+import com.prestek.people.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the read replica routing, with two H2 databases standing in for
+ * the primary and the replica. The replica starts as a copy of the primary, so rows that
+ * differ between them show which database served a call
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaDataSourceConfig.class, ApplicationService.class, UserService.class, UserKeyFilter.class,
+        UserLookupCache.class, CreditOfferService.class, ActiveCreditOfferCatalog.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Read Replica DataSource Tests")
+class ReadReplicaDataSourceConfigTest {
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserKeyFilter userKeyFilter;
+
+    @Autowired
+    private CreditOfferService creditOfferService;
+
+    @Autowired
+    private ActiveCreditOfferCatalog activeCatalog;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private User user;
+    private CreditOffer creditOffer;
+    private Application replicatedApplication;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("Ana")
+                .lastName("Lopez")
+                .email("ana@example.com")
+                .phone("+1000000000")
+                .documentNumber("DOC-1")
+                .build());
+        creditOffer = creditOfferRepository.save(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .isActive(true)
+                .build());
+        replicatedApplication = applicationRepository.save(Application.builder()
+                .user(user)
+                .creditOffer(creditOffer)
+                .status(ApplicationStatus.PENDING)
+                .applicationDate(LocalDateTime.now())
+                .build());
+
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class)) {
+            replica.execute(statement);
+        }
+        // Only the replica keeps this application from now on
+        applicationRepository.deleteById(replicatedApplication.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationRepository.deleteAll();
+        creditOfferRepository.deleteAll();
+        userRepository.deleteAll();
+        new JdbcTemplate(replicaDataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Should run read-only transactions on the replica and the rest on the primary")
+    void shouldRouteByTransactionReadOnlyFlag() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyDatabase = readOnly.execute(status -> currentDatabase());
+        String readWriteDatabase = readWrite.execute(status -> currentDatabase());
+
+        assertThat(readOnlyDatabase).isEqualTo("REPLICA");
+        assertThat(readWriteDatabase).isEqualTo("PRIMARY");
+        assertThat(currentDatabase()).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    @DisplayName("Should read applications from the replica")
+    void shouldServeReadsFromReplica() {
+        assertThat(applicationService.getApplicationById(replicatedApplication.getId())).isPresent();
+        assertThat(applicationService.getApplicationCountByUserId(user.getId())).isEqualTo(1L);
+        assertThat(existsOnPrimary(replicatedApplication.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should write applications to the primary")
+    void shouldSendWritesToPrimary() {
+        Long id = applicationService.createApplication(user.getId(), creditOffer.getId()).getId();
+
+        assertThat(existsOnPrimary(id)).isTrue();
+        assertThat(applicationService.getApplicationById(id)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the in-memory views from the primary while the replica lags behind")
+    void shouldRebuildFromPrimaryWhenReplicaLags() {
+        // Stored after the replica was copied, so the lagging replica does not have them yet
+        userRepository.save(User.builder()
+                .firstName("Luis")
+                .lastName("Perez")
+                .email("luis@example.com")
+                .phone("+1000000001")
+                .documentNumber("DOC-2")
+                .build());
+        CreditOffer newOffer = creditOfferRepository.save(CreditOffer.builder()
+                .amount(new BigDecimal("20000.00"))
+                .interestRate(new BigDecimal("9.90"))
+                .termMonths(12)
+                .financialEntity("Banco Agrario")
+                .isActive(true)
+                .build());
+
+        userService.loadKeyFilter();
+        creditOfferService.onCreditOffersChanged(new CreditOffersChangedEvent(newOffer.getId()));
+
+        assertThat(userRepository.count()).isEqualTo(2L);
+        assertThat(userKeyFilter.mightContainEmail("luis@example.com")).isTrue();
+        assertThat(userKeyFilter.mightContainDocumentNumber("DOC-2")).isTrue();
+        assertThat(userKeyFilter.mightContainEmail("nobody@example.com")).isFalse();
+        assertThat(activeCatalog.current().offers()).extracting(CreditOfferDto::getFinancialEntity)
+                .containsExactlyInAnyOrder("Banco Nacional", "Banco Agrario");
+    }
+
+    // Repository reads are read-only transactions of their own, inside a read-write one they use the primary
+    private boolean existsOnPrimary(Long applicationId) {
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> applicationRepository.existsById(applicationId)));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.prestek.people.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RoleAuthorities covering claim mapping and interning
+ */
+@DisplayName("RoleAuthorities Unit Tests")
+class RoleAuthoritiesTest {
+
+    private final RoleAuthorities roleAuthorities = new RoleAuthorities();
+
+    @Test
+    @DisplayName("Should map a single role claim to a prefixed authority")
+    void shouldMapSingleRole() {
+        List<GrantedAuthority> authorities = roleAuthorities.fromClaim("admin");
+
+        assertThat(authorities).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Should map a list role claim to prefixed authorities")
+    void shouldMapRoleList() {
+        List<GrantedAuthority> authorities = roleAuthorities.fromClaim(List.of("admin", "reviewer"));
+
+        assertThat(authorities).extracting("authority").containsExactly("ROLE_ADMIN", "ROLE_REVIEWER");
+    }
+
+    @Test
+    @DisplayName("Should return the same interned list for equal claims")
+    void shouldInternEqualClaims() {
+        List<GrantedAuthority> first = roleAuthorities.fromClaim(new ArrayList<>(List.of("admin", "user")));
+        List<GrantedAuthority> second = roleAuthorities.fromClaim(new ArrayList<>(List.of("admin", "user")));
+
+        assertThat(second).isSameAs(first);
+        assertThat(roleAuthorities.fromClaim("user")).isSameAs(roleAuthorities.fromClaim("user"));
+    }
+
+    @Test
+    @DisplayName("Should return no authorities for missing or unsupported claims")
+    void shouldIgnoreUnsupportedClaims() {
+        assertThat(roleAuthorities.fromClaim(null)).isEmpty();
+        assertThat(roleAuthorities.fromClaim(42)).isEmpty();
+    }
+}
@@ -0,0 +1,209 @@
+package com.prestek.people.config;
+
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.ApplicationRepository;
+import com.prestek.people.repository.CreditOfferRepository;
+import com.prestek.people.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the schema migrations on H2: Hibernate validates the migrated schema
+ * against the entities, every script runs once, changed scripts and concurrent starts are
+ * handled, and the query plans of the application lookups use the composite indexes
+ */
+@DataJpaTest
+@Import(SchemaMigrationConfig.class)
+@TestPropertySource(properties = {
+        "schema.migrations.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.default_schema=people"
+})
+@DisplayName("Schema Migration Tests")
+class SchemaMigratorTest {
+
+    private static final String APPLICATIONS = "\"people\".\"applications\"";
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+    private CreditOffer creditOffer;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("Ana")
+                .lastName("Lopez")
+                .email("ana@example.com")
+                .phone("+1000000000")
+                .documentNumber("DOC-1")
+                .build());
+        creditOffer = creditOfferRepository.save(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .isActive(true)
+                .build());
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        for (int i = 0; i < 200; i++) {
+            applicationRepository.save(Application.builder()
+                    .user(user)
+                    .creditOffer(creditOffer)
+                    .status(statuses[i % statuses.length])
+                    .applicationDate(LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(i))
+                    .build());
+        }
+        applicationRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should record every migration and run none again")
+    void shouldRunEachMigrationOnce() throws Exception {
+        assertThat(jdbcTemplate.queryForList("SELECT \"version\" FROM \"people\".\"schema_history\" ORDER BY \"version\"", Integer.class))
+                .containsExactly(1, 2, 3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"people\".\"schema_history\" WHERE \"checksum\" IS NULL", Integer.class))
+                .isZero();
+
+        assertThat(schemaMigrator.migrate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse to start when an applied script changed")
+    void shouldRejectChangedScript() {
+        SchemaMigrator changed = new SchemaMigrator(dataSource, "people", "classpath:db/changed-migration/*.sql");
+
+        assertThatThrownBy(changed::migrate)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("V1__create_tables.sql changed after it was applied");
+    }
+
+    @Test
+    @DisplayName("Should wait for another instance holding the migration lock")
+    void shouldWaitForMigrationLock() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection otherInstance = dataSource.getConnection()) {
+            otherInstance.setAutoCommit(false);
+            try (Statement statement = otherInstance.createStatement();
+                 ResultSet row = statement.executeQuery("SELECT \"id\" FROM \"people\".\"schema_history_lock\" WHERE \"id\" = 1 FOR UPDATE")) {
+                assertThat(row.next()).isTrue();
+            }
+
+            Future<Integer> migration = executor.submit(schemaMigrator::migrate);
+            Thread.sleep(300);
+            assertThat(migration.isDone()).isFalse();
+
+            otherInstance.rollback();
+            assertThat(migration.get(5, TimeUnit.SECONDS)).isZero();
+            otherInstance.setAutoCommit(true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete a users table created by ddl-auto=update")
+    void shouldAdoptUsersTableFromDdlAuto() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA \"legacy\"");
+            // The table as ddl-auto=update created it: no token subject and only an unnamed unique key on the email
+            statement.execute("CREATE TABLE \"legacy\".\"users\" (\"id\" bigint NOT NULL, \"first_name\" varchar(255) NOT NULL, "
+                    + "\"last_name\" varchar(255) NOT NULL, \"email\" varchar(255) NOT NULL UNIQUE, \"phone\" varchar(255) NOT NULL, "
+                    + "\"document_number\" varchar(255) NOT NULL, \"monthly_income\" float(53), \"monthly_expenses\" float(53), "
+                    + "\"credit_score\" integer, \"employment_status\" varchar(255), \"created_at\" timestamp(6), "
+                    + "\"updated_at\" timestamp(6), PRIMARY KEY (\"id\"))");
+            try {
+                assertThat(new SchemaMigrator(dataSource, "legacy", "classpath:db/migration/*.sql").migrate()).isEqualTo(3);
+
+                assertThat(jdbcTemplate.queryForList("SELECT \"COLUMN_NAME\" FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" "
+                        + "WHERE \"TABLE_SCHEMA\" = 'legacy' AND \"TABLE_NAME\" = 'users'", String.class))
+                        .contains("auth_subject");
+                assertThat(uniqueKeys("legacy")).contains("uk_users_email", "uk_users_document_number", "uk_users_auth_subject");
+            } finally {
+                statement.execute("DROP SCHEMA \"legacy\" CASCADE");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the users table the named unique keys")
+    void shouldNameUserUniqueKeys() {
+        assertThat(uniqueKeys("people")).contains("uk_users_email", "uk_users_document_number", "uk_users_auth_subject");
+    }
+
+    @Test
+    @DisplayName("Should use the user and status index for lookups and counts by user")
+    void shouldUseUserStatusIndex() {
+        assertThat(plan("SELECT * FROM " + APPLICATIONS + " WHERE \"user_id\" = " + user.getId() + " AND \"status\" = 'PENDING'"))
+                .containsIgnoringCase("idx_applications_user_status");
+        // H2 indexes foreign key columns by itself and may pick that index, either way it is no table scan
+        assertThat(plan("SELECT COUNT(*) FROM " + APPLICATIONS + " WHERE \"user_id\" = " + user.getId()))
+                .containsIgnoringCase("user_id =")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("Should use the credit offer and status index for lookups by offer")
+    void shouldUseCreditOfferStatusIndex() {
+        assertThat(plan("SELECT * FROM " + APPLICATIONS + " WHERE \"credit_offer_id\" = " + creditOffer.getId() + " AND \"status\" = 'APPROVED'"))
+                .containsIgnoringCase("idx_applications_credit_offer_status");
+    }
+
+    @Test
+    @DisplayName("Should use the status and date index for lookups by status and date range")
+    void shouldUseStatusDateIndex() {
+        assertThat(plan("SELECT * FROM " + APPLICATIONS + " WHERE \"status\" = 'REJECTED'"))
+                .containsIgnoringCase("idx_applications_status_date");
+        assertThat(plan("SELECT * FROM " + APPLICATIONS + " WHERE \"status\" = 'REJECTED' "
+                + "AND \"application_date\" >= TIMESTAMP '2025-02-01 00:00:00' AND \"application_date\" < TIMESTAMP '2025-03-01 00:00:00'"))
+                .containsIgnoringCase("idx_applications_status_date");
+    }
+
+    private List<String> uniqueKeys(String schema) {
+        return jdbcTemplate.queryForList("SELECT LOWER(\"INDEX_NAME\") FROM \"INFORMATION_SCHEMA\".\"INDEXES\" "
+                + "WHERE \"TABLE_SCHEMA\" = ? AND \"TABLE_NAME\" = 'users'", String.class, schema);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
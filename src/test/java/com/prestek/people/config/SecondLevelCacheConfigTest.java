@@ -0,0 +1,169 @@
+package com.prestek.people.config;
+
+import com.prestek.people.model.Application;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.ApplicationRepository;
+import com.prestek.people.repository.CreditOfferRepository;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.ApplicationService;
+import com.prestek.people.service.CurrentUserResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level cache: users and credit offers are read from their
+ * regions once stored, updates reach the cache, linking a token subject keeps the other users
+ * cached, applications are never cached and region statistics are exported as metrics.
+ * Runs outside the test-managed transaction so every call uses a new session
+ */
+@DataJpaTest
+@Import({SecondLevelCacheConfig.class, ApplicationService.class, CurrentUserResolver.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache"
+})
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private CreditOffer creditOffer;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("Ana")
+                .lastName("Lopez")
+                .email("ana@example.com")
+                .phone("+1000000000")
+                .documentNumber("DOC-1")
+                .build());
+        creditOffer = creditOfferRepository.save(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .isActive(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationRepository.deleteAll();
+        creditOfferRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create an application reading the user and credit offer from the cache")
+    void shouldServeApplicationLookupsFromCache() {
+        Statistics statistics = statistics();
+
+        applicationService.createApplication(user.getId(), creditOffer.getId());
+
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(CreditOffer.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(CreditOffer.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read the updated user after an update")
+    void shouldRefreshCachedUserOnUpdate() {
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        stored.setFirstName("Ana Maria");
+        userRepository.save(stored);
+        Statistics statistics = statistics();
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getFirstName()).isEqualTo("Ana Maria");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep other cached users when a token subject is linked")
+    void shouldKeepOtherCachedUsersWhenLinkingSubject() {
+        User other = userRepository.save(User.builder()
+                .firstName("Luis")
+                .lastName("Perez")
+                .email("luis@example.com")
+                .phone("+1000000001")
+                .documentNumber("DOC-2")
+                .build());
+
+        assertThat(currentUserResolver.resolveUserId(new UsernamePasswordAuthenticationToken(
+                new ClerkPrincipal("user_123", "ana@example.com"), null, List.of()))).contains(user.getId());
+        Statistics statistics = statistics();
+
+        assertThat(userRepository.findById(other.getId())).isPresent();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getAuthSubject()).isEqualTo("user_123");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cache users and credit offers but not applications")
+    void shouldNotCacheApplications() {
+        assertThat(List.of(statistics().getSecondLevelCacheRegionNames()))
+                .contains(User.CACHE_REGION, CreditOffer.CACHE_REGION)
+                .noneMatch(region -> region.contains(Application.class.getSimpleName()));
+    }
+
+    @Test
+    @DisplayName("Should export hits and misses per region as metrics")
+    void shouldExportRegionMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", List.of()).bindTo(meterRegistry);
+        statistics();
+
+        userRepository.findById(user.getId());
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", User.CACHE_REGION).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
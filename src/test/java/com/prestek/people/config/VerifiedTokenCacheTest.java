@@ -0,0 +1,96 @@
+package com.prestek.people.config;
+
+import com.prestek.people.config.VerifiedTokenCache.VerifiedToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for VerifiedTokenCache covering lookup, expiry, size bounds and the eviction victim
+ */
+@DisplayName("VerifiedTokenCache Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private static final long ONE_HOUR = 3600000;
+
+    @Test
+    @DisplayName("Should return cached token for the same raw token")
+    void shouldReturnCachedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken verified = new VerifiedToken("user_123",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), System.currentTimeMillis() + ONE_HOUR);
+
+        cache.put(cache.keyFor("header.payload.signature"), verified);
+
+        VerifiedToken cached = cache.get(cache.keyFor("header.payload.signature"));
+        assertThat(cached).isSameAs(verified);
+        assertThat(cached.getSubject()).isEqualTo("user_123");
+        assertThat(cached.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(cache.get(cache.keyFor("other.payload.signature"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict token once its expiration time has passed")
+    void shouldEvictExpiredToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        String key = cache.keyFor("expired.token.value");
+
+        cache.put(key, new VerifiedToken("user_123", List.of(), System.currentTimeMillis() - 1));
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never hold more entries than the configured maximum")
+    void shouldStayWithinBounds() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3);
+        long expiresAt = System.currentTimeMillis() + ONE_HOUR;
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(cache.keyFor("token-" + i), new VerifiedToken("user_" + i, List.of(), expiresAt));
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should keep a frequently used token when full of live tokens")
+    void shouldKeepFrequentlyUsedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3);
+        long expiresAt = System.currentTimeMillis() + ONE_HOUR;
+        String hot = cache.keyFor("hot.token.value");
+        cache.put(hot, new VerifiedToken("user_hot", List.of(), expiresAt));
+        for (int i = 0; i < 2; i++) {
+            cache.put(cache.keyFor("warm-" + i), new VerifiedToken("user_warm", List.of(), expiresAt));
+        }
+        // size() runs the pending maintenance, so the reads are counted before the churn starts
+        assertThat(cache.size()).isEqualTo(3);
+        for (int i = 0; i < 10; i++) {
+            cache.get(hot);
+        }
+        cache.size();
+
+        for (int i = 0; i < 20; i++) {
+            cache.put(cache.keyFor("token-" + i), new VerifiedToken("user_" + i, List.of(), expiresAt));
+            assertThat(cache.size()).isLessThanOrEqualTo(3);
+        }
+
+        assertThat(cache.get(hot)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache anything when disabled")
+    void shouldNotCacheWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        String key = cache.keyFor("header.payload.signature");
+
+        cache.put(key, new VerifiedToken("user_123", List.of(), System.currentTimeMillis() + ONE_HOUR));
+
+        assertThat(cache.get(key)).isNull();
+    }
+}
@@ -0,0 +1,176 @@
+package com.prestek.people.controller;
+
+import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.dto.StatusUpdateResultDto;
+import com.prestek.people.dto.StatusUpdateResultDto.Outcome;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.service.ApplicationService;
+import com.prestek.people.service.CurrentUserResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ApplicationController endpoints that are not plain
+ * JSON request/response mappings
+ */
+@WebMvcTest(ApplicationController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("ApplicationController Unit Tests")
+class ApplicationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ApplicationService applicationService;
+
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+
+    @Test
+    @DisplayName("Should page the caller's applications via GET /api/applications/me")
+    void shouldReturnCurrentUserApplications() throws Exception {
+        // Given
+        when(currentUserResolver.resolveUserId(any())).thenReturn(Optional.of(7L));
+        when(applicationService.getApplicationsByUserId(7L, null, 20))
+                .thenReturn(new CursorPage<>(List.of(ApplicationDto.builder().id(3L).build()), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/applications/me").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3L));
+
+        verify(applicationService).getApplicationsByUserId(7L, null, 20);
+    }
+
+    @Test
+    @DisplayName("Should return 404 via GET /api/applications/me when no user is linked to the token")
+    void shouldReturn404WhenNoCurrentUserApplications() throws Exception {
+        // Given
+        when(currentUserResolver.resolveUserId(any())).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/applications/me"))
+                .andExpect(status().isNotFound());
+
+        verify(applicationService, never()).getApplicationsByUserId(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON application per line via GET /api/applications/export")
+    @SuppressWarnings("unchecked")
+    void shouldExportApplicationsAsNdjson() throws Exception {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 2, 1, 0, 0);
+        when(applicationService.exportApplications(eq(ApplicationStatus.APPROVED), eq(from), eq(to), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<ApplicationDto> sink = invocation.getArgument(3);
+                    sink.accept(ApplicationDto.builder().id(1L).status(ApplicationStatus.APPROVED).build());
+                    sink.accept(ApplicationDto.builder().id(2L).status(ApplicationStatus.APPROVED).build());
+                    return 2L;
+                });
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/applications/export")
+                        .param("status", "APPROVED")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-02-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        // Then
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,").endsWith("}");
+        assertThat(lines[1]).startsWith("{\"id\":2,").endsWith("}");
+        assertThat(result.getResponse().getContentAsString()).endsWith("}\n");
+    }
+
+    @Test
+    @DisplayName("Should return 409 when the status transition is not allowed")
+    void shouldReturnConflictForRejectedTransition() throws Exception {
+        // Given
+        when(applicationService.updateApplicationStatus(1L, ApplicationStatus.PENDING, null))
+                .thenThrow(new IllegalStateException("Cannot change application status from APPROVED to PENDING"));
+
+        // When & Then
+        mockMvc.perform(patch("/api/applications/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"PENDING\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty bulk status update")
+    void shouldRejectEmptyBulkStatusUpdate() throws Exception {
+        mockMvc.perform(patch("/api/applications/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(applicationService, never()).updateApplicationStatuses(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk status update with a null item or an item without id or status")
+    void shouldRejectIncompleteBulkStatusItems() throws Exception {
+        for (String content : List.of("[null]", "[{\"status\": \"APPROVED\"}]", "[{\"id\": 1}]")) {
+            mockMvc.perform(patch("/api/applications/status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(content))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(applicationService, never()).updateApplicationStatuses(any());
+    }
+
+    @Test
+    @DisplayName("Should return the outcome of each item via PATCH /api/applications/status")
+    void shouldReturnBulkStatusOutcomes() throws Exception {
+        // Given
+        when(applicationService.updateApplicationStatuses(anyList())).thenReturn(List.of(
+                StatusUpdateResultDto.builder().id(1L).status(ApplicationStatus.APPROVED).outcome(Outcome.UPDATED).build(),
+                StatusUpdateResultDto.builder().id(2L).status(ApplicationStatus.APPROVED).outcome(Outcome.NOT_FOUND).build()));
+
+        // When & Then
+        mockMvc.perform(patch("/api/applications/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": 1, \"status\": \"APPROVED\"}, {\"id\": 2, \"status\": \"APPROVED\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Should reject an export with an invalid status")
+    void shouldRejectExportWithInvalidStatus() throws Exception {
+        mockMvc.perform(get("/api/applications/export").param("status", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+
+        verify(applicationService, never()).exportApplications(any(), any(), any(), any());
+    }
+}
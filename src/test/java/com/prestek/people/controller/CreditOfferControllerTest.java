@@ -0,0 +1,97 @@
+package com.prestek.people.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.people.service.AmortizationSchedule;
+import com.prestek.people.service.CreditOfferImportService;
+import com.prestek.people.service.CreditOfferService;
+import com.prestek.people.service.OfferEligibilityService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for CreditOfferController endpoints that are not plain
+ * JSON request/response mappings
+ */
+@WebMvcTest(CreditOfferController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("CreditOfferController Unit Tests")
+class CreditOfferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CreditOfferService creditOfferService;
+
+    @MockitoBean
+    private OfferEligibilityService offerEligibilityService;
+
+    @MockitoBean
+    private CreditOfferImportService creditOfferImportService;
+
+    @Test
+    @DisplayName("Should stream the amortization schedule via GET /api/credit-offers/{id}/schedule")
+    void shouldStreamAmortizationSchedule() throws Exception {
+        // Given
+        when(creditOfferService.getAmortizationSchedule(1L, new BigDecimal("12000")))
+                .thenReturn(Optional.of(AmortizationSchedule.of(1L, new BigDecimal("12000"), new BigDecimal("12.5"), 12)));
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/credit-offers/1/schedule").param("amount", "12000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        JsonNode schedule = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertThat(schedule.get("creditOfferId").asLong()).isEqualTo(1L);
+        assertThat(schedule.get("amount").decimalValue()).isEqualByComparingTo("12000.00");
+        assertThat(schedule.get("interestRate").decimalValue()).isEqualByComparingTo("12.5");
+        assertThat(schedule.get("rows")).hasSize(12);
+        assertThat(schedule.get("rows").get(0).get("month").asInt()).isEqualTo(1);
+        assertThat(schedule.get("rows").get(0).get("interest").decimalValue()).isEqualByComparingTo("125.00");
+        assertThat(schedule.get("rows").get(11).get("balance").decimalValue()).isEqualByComparingTo("0.00");
+        assertThat(schedule.get("totalPaid").decimalValue())
+                .isEqualByComparingTo(new BigDecimal("12000.00").add(schedule.get("totalInterest").decimalValue()));
+        assertThat(result.getResponse().getContentAsString()).contains("\"balance\":0.00");
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown credit offer schedule")
+    void shouldReturnNotFoundForUnknownOffer() throws Exception {
+        when(creditOfferService.getAmortizationSchedule(99L, null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/credit-offers/99/schedule"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a non-positive schedule amount")
+    void shouldRejectInvalidAmount() throws Exception {
+        when(creditOfferService.getAmortizationSchedule(1L, new BigDecimal("-5")))
+                .thenThrow(new IllegalArgumentException("Loan amount must be greater than zero"));
+
+        mockMvc.perform(get("/api/credit-offers/1/schedule").param("amount", "-5"))
+                .andExpect(status().isBadRequest());
+    }
+}
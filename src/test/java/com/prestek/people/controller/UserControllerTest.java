@@ -1,7 +1,11 @@
 package com.prestek.people.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.people.dto.CursorPage;
 import com.prestek.people.dto.UserDto;
+import com.prestek.people.config.ClerkPrincipal;
+import com.prestek.people.service.CurrentUserResolver;
+import com.prestek.people.service.UserImportService;
 import com.prestek.people.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
@@ -41,6 +46,12 @@ class UserControllerTest {
         @MockitoBean
         private UserService userService;
 
+        @MockitoBean
+        private UserImportService userImportService;
+
+        @MockitoBean
+        private CurrentUserResolver currentUserResolver;
+
         @Autowired
         private ObjectMapper objectMapper;
 
@@ -182,24 +193,41 @@ class UserControllerTest {
                 // Given
                 UserDto user1 = createUserDto(1L, "John", "Doe", "john.doe@example.com");
                 UserDto user2 = createUserDto(2L, "Jane", "Smith", "jane.smith@example.com");
-                List<UserDto> users = Arrays.asList(user1, user2);
+                CursorPage<UserDto> users = new CursorPage<>(Arrays.asList(user1, user2), 2L);
 
-                when(userService.getAllUsers()).thenReturn(users);
+                when(userService.getAllUsers(null, 50)).thenReturn(users);
 
                 // When & Then
                 mockMvc.perform(get("/api/users"))
                                 .andExpect(status().isOk())
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                                .andExpect(jsonPath("$").isArray())
-                                .andExpect(jsonPath("$.length()").value(2))
-                                .andExpect(jsonPath("$[0].id").value(1L))
-                                .andExpect(jsonPath("$[0].firstName").value("John"))
-                                .andExpect(jsonPath("$[0].email").value("john.doe@example.com"))
-                                .andExpect(jsonPath("$[1].id").value(2L))
-                                .andExpect(jsonPath("$[1].firstName").value("Jane"))
-                                .andExpect(jsonPath("$[1].email").value("jane.smith@example.com"));
-
-                verify(userService).getAllUsers();
+                                .andExpect(jsonPath("$.items").isArray())
+                                .andExpect(jsonPath("$.items.length()").value(2))
+                                .andExpect(jsonPath("$.items[0].id").value(1L))
+                                .andExpect(jsonPath("$.items[0].firstName").value("John"))
+                                .andExpect(jsonPath("$.items[0].email").value("john.doe@example.com"))
+                                .andExpect(jsonPath("$.items[1].id").value(2L))
+                                .andExpect(jsonPath("$.items[1].firstName").value("Jane"))
+                                .andExpect(jsonPath("$.items[1].email").value("jane.smith@example.com"))
+                                .andExpect(jsonPath("$.nextCursor").value(2L));
+
+                verify(userService).getAllUsers(null, 50);
+        }
+
+        @Test
+        @DisplayName("Should pass the cursor and cap the page size via GET /api/users")
+        void shouldPassCursorAndCapPageSize() throws Exception {
+                // Given
+                UserDto user = createUserDto(3L, "John", "Doe", "john.doe@example.com");
+                when(userService.getAllUsers(2L, 200)).thenReturn(new CursorPage<>(List.of(user), null));
+
+                // When & Then
+                mockMvc.perform(get("/api/users").param("cursor", "2").param("size", "5000"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(3L))
+                                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+                verify(userService).getAllUsers(2L, 200);
         }
 
         @Test
@@ -220,6 +248,37 @@ class UserControllerTest {
                 verify(userService).getUserById(1L);
         }
 
+        @Test
+        @DisplayName("Should retrieve the caller's user via GET /api/users/me")
+        void shouldRetrieveCurrentUser() throws Exception {
+                // Given
+                UsernamePasswordAuthenticationToken caller = new UsernamePasswordAuthenticationToken(
+                                new ClerkPrincipal("user_123", "john.doe@example.com"), null, List.of());
+                when(currentUserResolver.resolveUserId(caller)).thenReturn(Optional.of(1L));
+                when(userService.getUserById(1L)).thenReturn(Optional.of(createdUserDto));
+
+                // When & Then
+                mockMvc.perform(get("/api/users/me").principal(caller))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.id").value(1L))
+                                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+
+                verify(userService, never()).getUserByEmail(anyString());
+        }
+
+        @Test
+        @DisplayName("Should return 404 via GET /api/users/me when no user is linked to the token")
+        void shouldReturn404WhenNoCurrentUser() throws Exception {
+                // Given
+                when(currentUserResolver.resolveUserId(any())).thenReturn(Optional.empty());
+
+                // When & Then
+                mockMvc.perform(get("/api/users/me"))
+                                .andExpect(status().isNotFound());
+
+                verify(userService, never()).getUserById(anyLong());
+        }
+
         @Test
         @DisplayName("Should return 404 when user not found by ID")
         void shouldReturn404WhenUserNotFoundById() throws Exception {
@@ -264,19 +323,20 @@ class UserControllerTest {
         }
 
         @Test
-        @DisplayName("Should return empty array when no users exist")
+        @DisplayName("Should return an empty page when no users exist")
         void shouldReturnEmptyArrayWhenNoUsersExist() throws Exception {
                 // Given
-                when(userService.getAllUsers()).thenReturn(Arrays.asList());
+                when(userService.getAllUsers(null, 50)).thenReturn(new CursorPage<>(Arrays.asList(), null));
 
                 // When & Then
                 mockMvc.perform(get("/api/users"))
                                 .andExpect(status().isOk())
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                                .andExpect(jsonPath("$").isArray())
-                                .andExpect(jsonPath("$.length()").value(0));
+                                .andExpect(jsonPath("$.items").isArray())
+                                .andExpect(jsonPath("$.items.length()").value(0))
+                                .andExpect(jsonPath("$.nextCursor").doesNotExist());
 
-                verify(userService).getAllUsers();
+                verify(userService).getAllUsers(null, 50);
         }
 
         // ==========================================
@@ -287,7 +347,7 @@ class UserControllerTest {
         @DisplayName("Should handle service exceptions gracefully")
         void shouldHandleServiceExceptionsGracefully() throws Exception {
                 // Given
-                when(userService.getAllUsers()).thenThrow(new RuntimeException("Database connection failed"));
+                when(userService.getAllUsers(null, 50)).thenThrow(new RuntimeException("Database connection failed"));
 
                 // When & Then
                 // The controller doesn't have global exception handling, so the exception
@@ -297,7 +357,7 @@ class UserControllerTest {
                                 .hasCauseInstanceOf(RuntimeException.class)
                                 .hasMessageContaining("Database connection failed");
 
-                verify(userService).getAllUsers();
+                verify(userService).getAllUsers(null, 50);
         }
 
         @Test
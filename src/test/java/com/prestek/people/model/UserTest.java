@@ -81,6 +81,7 @@ class UserTest {
                 "jane.smith@example.com",
                 "+9876543210",
                 "87654321",
+                "user_2",
                 6000.0,
                 3500.0,
                 800,
@@ -97,6 +98,7 @@ class UserTest {
         assertThat(newUser.getEmail()).isEqualTo("jane.smith@example.com");
         assertThat(newUser.getPhone()).isEqualTo("+9876543210");
         assertThat(newUser.getDocumentNumber()).isEqualTo("87654321");
+        assertThat(newUser.getAuthSubject()).isEqualTo("user_2");
         assertThat(newUser.getMonthlyIncome()).isEqualTo(6000.0);
         assertThat(newUser.getMonthlyExpenses()).isEqualTo(3500.0);
         assertThat(newUser.getCreditScore()).isEqualTo(800);
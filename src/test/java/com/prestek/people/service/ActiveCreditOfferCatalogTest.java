@@ -0,0 +1,118 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.service.ActiveCreditOfferCatalog.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ActiveCreditOfferCatalog snapshots, generations, paging and metrics
+ */
+@DisplayName("ActiveCreditOfferCatalog Tests")
+class ActiveCreditOfferCatalogTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ActiveCreditOfferCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new ActiveCreditOfferCatalog(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should record a miss before the first snapshot and hits afterwards")
+    void shouldRecordHitsAndMisses() {
+        assertThat(catalog.current()).isNull();
+
+        catalog.install(catalog.nextGeneration(), List.of(offer(1L)));
+        catalog.current();
+        catalog.current();
+
+        assertThat(meterRegistry.get("credit_offers.catalog.lookups").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("credit_offers.catalog.lookups").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("credit_offers.catalog.rebuilds").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("credit_offers.catalog.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not let an older rebuild replace a newer snapshot")
+    void shouldKeepNewestGeneration() {
+        long older = catalog.nextGeneration();
+        long newer = catalog.nextGeneration();
+
+        catalog.install(newer, List.of(offer(1L), offer(2L)));
+        Snapshot installed = catalog.install(older, List.of(offer(1L)));
+
+        assertThat(installed.generation()).isEqualTo(newer);
+        assertThat(catalog.current().offers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should page the snapshot by id after the cursor")
+    void shouldPageByCursor() {
+        catalog.install(catalog.nextGeneration(), List.of(offer(7L), offer(3L), offer(5L), offer(9L)));
+        Snapshot snapshot = catalog.current();
+
+        CursorPage<CreditOfferDto> first = snapshot.page(null, 2);
+        CursorPage<CreditOfferDto> second = snapshot.page(first.getNextCursor(), 2);
+        CursorPage<CreditOfferDto> between = snapshot.page(4L, 10);
+
+        assertThat(first.getItems()).extracting(CreditOfferDto::getId).containsExactly(3L, 5L);
+        assertThat(first.getNextCursor()).isEqualTo(5L);
+        assertThat(second.getItems()).extracting(CreditOfferDto::getId).containsExactly(7L, 9L);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(between.getItems()).extracting(CreditOfferDto::getId).containsExactly(5L, 7L, 9L);
+    }
+
+    @Test
+    @DisplayName("Should page offers in an inclusive amount range in id order")
+    void shouldPageByAmountRange() {
+        catalog.install(catalog.nextGeneration(), List.of(
+                offer(1L, "5000", "12.0"), offer(2L, "1000", "9.5"), offer(3L, "20000", "15.0"),
+                offer(4L, "10000", "11.0"), offer(5L, "5000", "18.0"), offer(6L, "10000", "8.0")));
+        Snapshot snapshot = catalog.current();
+
+        CursorPage<CreditOfferDto> first = snapshot.pageByAmount(new BigDecimal("5000"), new BigDecimal("10000"), null, 3);
+        CursorPage<CreditOfferDto> second = snapshot.pageByAmount(new BigDecimal("5000"), new BigDecimal("10000"), first.getNextCursor(), 3);
+
+        assertThat(first.getItems()).extracting(CreditOfferDto::getId).containsExactly(1L, 4L, 5L);
+        assertThat(first.getNextCursor()).isEqualTo(5L);
+        assertThat(second.getItems()).extracting(CreditOfferDto::getId).containsExactly(6L);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(snapshot.pageByAmount(new BigDecimal("10000"), new BigDecimal("5000"), null, 10).getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page offers up to a maximum interest rate in id order")
+    void shouldPageByMaxRate() {
+        catalog.install(catalog.nextGeneration(), List.of(
+                offer(1L, "5000", "12.0"), offer(2L, "1000", "9.5"), offer(3L, "20000", "15.0"),
+                offer(4L, "10000", "11.0"), offer(5L, "5000", "18.0")));
+        Snapshot snapshot = catalog.current();
+
+        CursorPage<CreditOfferDto> page = snapshot.pageByMaxRate(new BigDecimal("12.00"), null, 10);
+        CursorPage<CreditOfferDto> afterCursor = snapshot.pageByMaxRate(new BigDecimal("12.00"), 2L, 10);
+
+        assertThat(page.getItems()).extracting(CreditOfferDto::getId).containsExactly(1L, 2L, 4L);
+        assertThat(afterCursor.getItems()).extracting(CreditOfferDto::getId).containsExactly(4L);
+        assertThat(snapshot.pageByMaxRate(new BigDecimal("5"), null, 10).getItems()).isEmpty();
+    }
+
+    private CreditOfferDto offer(Long id) {
+        return CreditOfferDto.builder().id(id).isActive(true).build();
+    }
+
+    private CreditOfferDto offer(Long id, String amount, String interestRate) {
+        return CreditOfferDto.builder().id(id).isActive(true)
+                .amount(new BigDecimal(amount)).interestRate(new BigDecimal(interestRate)).build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.prestek.people.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the long-cents amortization schedule
+ */
+@DisplayName("AmortizationSchedule Unit Tests")
+class AmortizationScheduleTest {
+
+    @Test
+    @DisplayName("Should amortize the principal to zero with a fixed installment")
+    void shouldAmortizeToZero() {
+        AmortizationSchedule schedule = AmortizationSchedule.of(1L, new BigDecimal("12000"), new BigDecimal("12"), 12);
+        List<long[]> rows = new ArrayList<>();
+
+        long totalInterest = schedule.forEachRow((month, payment, principal, interest, balance) ->
+                rows.add(new long[] {month, payment, principal, interest, balance}));
+
+        assertThat(schedule.installmentCents()).isEqualTo(106619L);
+        assertThat(rows).hasSize(12);
+        assertThat(rows.get(0)).containsExactly(1, 106619, 94619, 12000, 1105381);
+        assertThat(rows.get(11)[4]).isZero();
+        assertThat(rows.stream().mapToLong(row -> row[2]).sum()).isEqualTo(1200000L);
+        assertThat(rows.stream().mapToLong(row -> row[3]).sum()).isEqualTo(totalInterest);
+        assertThat(rows.subList(0, 11)).allSatisfy(row -> assertThat(row[1]).isEqualTo(106619L));
+        assertThat(rows.get(11)[1]).isCloseTo(106619L, within(5L));
+    }
+
+    @Test
+    @DisplayName("Should split the principal evenly when the rate is zero")
+    void shouldHandleZeroRate() {
+        AmortizationSchedule schedule = AmortizationSchedule.of(1L, new BigDecimal("1000.00"), BigDecimal.ZERO, 3);
+        List<long[]> rows = new ArrayList<>();
+
+        long totalInterest = schedule.forEachRow((month, payment, principal, interest, balance) ->
+                rows.add(new long[] {month, payment, principal, interest, balance}));
+
+        assertThat(totalInterest).isZero();
+        assertThat(rows).extracting(row -> row[2]).containsExactly(33333L, 33333L, 33334L);
+        assertThat(rows.get(2)[4]).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive or too large amounts and terms")
+    void shouldRejectInvalidLoans() {
+        assertThatThrownBy(() -> AmortizationSchedule.of(1L, BigDecimal.ZERO, BigDecimal.TEN, 12))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AmortizationSchedule.of(1L, BigDecimal.TEN, BigDecimal.TEN, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AmortizationSchedule.of(1L, new BigDecimal("1e30"), BigDecimal.TEN, 12))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(AmortizationSchedule.of(1L, AmortizationSchedule.MAX_AMOUNT, BigDecimal.TEN, 12).principalCents())
+                .isEqualTo(100_000_000_000_000L);
+    }
+}
@@ -0,0 +1,144 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.StatusUpdateDto;
+import com.prestek.people.dto.StatusUpdateResultDto;
+import com.prestek.people.dto.StatusUpdateResultDto.Outcome;
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.ApplicationRepository;
+import com.prestek.people.repository.CreditOfferRepository;
+import com.prestek.people.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for bulk application status updates. Chunks commit on
+ * their own, so these tests run outside the test-managed transaction and
+ * clean up after themselves
+ */
+@DataJpaTest
+@Import(ApplicationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "applications.bulk-status.chunk-size=2"
+})
+@DisplayName("ApplicationService Bulk Status Update Tests")
+class ApplicationBulkStatusUpdateTest {
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    private User user;
+    private CreditOffer creditOffer;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .documentNumber("12345678")
+                .build());
+        creditOffer = creditOfferRepository.save(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan")
+                .isActive(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationRepository.deleteAll();
+        creditOfferRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should apply valid changes and report every other item in request order")
+    void shouldReportOutcomePerItem() {
+        Long approved = newApplication(ApplicationStatus.PENDING);
+        Long rejected = newApplication(ApplicationStatus.UNDER_REVIEW);
+        Long decided = newApplication(ApplicationStatus.APPROVED);
+
+        List<StatusUpdateResultDto> results = applicationService.updateApplicationStatuses(List.of(
+                update(approved, ApplicationStatus.APPROVED, "Looks good"),
+                update(999_999L, ApplicationStatus.APPROVED, null),
+                update(decided, ApplicationStatus.PENDING, null),
+                update(rejected, ApplicationStatus.REJECTED, "Income too low"),
+                update(rejected, ApplicationStatus.APPROVED, null)));
+
+        assertThat(results).extracting(StatusUpdateResultDto::getOutcome).containsExactly(
+                Outcome.UPDATED, Outcome.NOT_FOUND, Outcome.INVALID_TRANSITION, Outcome.UPDATED, Outcome.INVALID_TRANSITION);
+        assertThat(results).extracting(StatusUpdateResultDto::getId)
+                .containsExactly(approved, 999_999L, decided, rejected, rejected);
+
+        Application approvedApplication = applicationRepository.findById(approved).orElseThrow();
+        assertThat(approvedApplication.getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+        assertThat(approvedApplication.getApprovalDate()).isNotNull();
+        assertThat(approvedApplication.getNotes()).isEqualTo("Looks good");
+
+        Application rejectedApplication = applicationRepository.findById(rejected).orElseThrow();
+        assertThat(rejectedApplication.getStatus()).isEqualTo(ApplicationStatus.REJECTED);
+        assertThat(rejectedApplication.getRejectionReason()).isEqualTo("Income too low");
+        assertThat(rejectedApplication.getApprovalDate()).isNull();
+
+        assertThat(applicationRepository.findById(decided).orElseThrow().getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should validate repeated changes to one application against the previous change")
+    void shouldChainChangesToTheSameApplication() {
+        Long id = newApplication(ApplicationStatus.PENDING);
+
+        List<StatusUpdateResultDto> results = applicationService.updateApplicationStatuses(List.of(
+                update(id, ApplicationStatus.UNDER_REVIEW, "Checking documents"),
+                update(id, ApplicationStatus.APPROVED, "Approved")));
+
+        assertThat(results).extracting(StatusUpdateResultDto::getOutcome).containsExactly(Outcome.UPDATED, Outcome.UPDATED);
+        Application application = applicationRepository.findById(id).orElseThrow();
+        assertThat(application.getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+        assertThat(application.getReviewDate()).isNotNull();
+        assertThat(application.getApprovalDate()).isNotNull();
+    }
+
+    private Long newApplication(ApplicationStatus status) {
+        return applicationRepository.save(Application.builder()
+                .user(user)
+                .creditOffer(creditOffer)
+                .status(status)
+                .build()).getId();
+    }
+
+    private StatusUpdateDto update(Long id, ApplicationStatus status, String notes) {
+        return StatusUpdateDto.builder().id(id).status(status).notes(notes).build();
+    }
+}
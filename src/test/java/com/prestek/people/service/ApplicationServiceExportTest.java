@@ -0,0 +1,114 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the streaming application export: filters, ordering
+ * and rows read as DTOs without entering the persistence context
+ */
+@DataJpaTest
+@Import(ApplicationService.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@DisplayName("ApplicationService Export Tests")
+class ApplicationServiceExportTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 15, 10, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 15, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    private User user;
+    private CreditOffer creditOffer;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .documentNumber("12345678")
+                .build());
+        creditOffer = entityManager.persist(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan")
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should export every application in id order when no filter is given")
+    void shouldExportAllApplicationsInIdOrder() {
+        for (int i = 0; i < 1200; i++) {
+            persistApplication(i % 2 == 0 ? ApplicationStatus.PENDING : ApplicationStatus.APPROVED, JANUARY);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids = new ArrayList<>();
+        long exported = applicationService.exportApplications(null, null, null, application -> {
+            assertThat(application.getUserFullName()).isEqualTo("John Doe");
+            assertThat(application.getCreditOfferDescription()).isEqualTo("Personal loan");
+            ids.add(application.getId());
+        });
+
+        assertThat(exported).isEqualTo(1200);
+        assertThat(ids).hasSize(1200).isSorted().doesNotHaveDuplicates();
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should export only applications matching status and date range")
+    void shouldApplyStatusAndDateFilters() {
+        persistApplication(ApplicationStatus.APPROVED, JANUARY);
+        persistApplication(ApplicationStatus.APPROVED, FEBRUARY);
+        persistApplication(ApplicationStatus.PENDING, JANUARY);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ApplicationDto> exported = new ArrayList<>();
+        applicationService.exportApplications(ApplicationStatus.APPROVED,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0), exported::add);
+
+        assertThat(exported).singleElement().satisfies(application -> {
+            assertThat(application.getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+            assertThat(application.getApplicationDate()).isEqualTo(JANUARY);
+        });
+    }
+
+    private void persistApplication(ApplicationStatus status, LocalDateTime applicationDate) {
+        entityManager.persist(Application.builder()
+                .user(user)
+                .creditOffer(creditOffer)
+                .status(status)
+                .applicationDate(applicationDate)
+                .build());
+    }
+}
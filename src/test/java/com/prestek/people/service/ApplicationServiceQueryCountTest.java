@@ -0,0 +1,158 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests verifying that the ApplicationService list operations
+ * read users and credit offers in the same query, so the number of SQL
+ * statements does not grow with the number of applications, and select
+ * DTOs directly without loading any entity
+ */
+@DataJpaTest
+@Import(ApplicationService.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("ApplicationService Query Count Tests")
+class ApplicationServiceQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    private Statistics statistics;
+    private User user;
+    private CreditOffer creditOffer;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = entityManager.persist(newUser(sequence));
+        creditOffer = entityManager.persist(newCreditOffer());
+    }
+
+    @Test
+    @DisplayName("Should use a constant number of statements for all applications")
+    void getAllApplicationsShouldNotIssueNPlusOneQueries() {
+        long smallCount = statementsFor(3, () -> applicationService.getAllApplications(null, 100).getItems());
+        long largeCount = statementsFor(12, () -> applicationService.getAllApplications(null, 100).getItems());
+
+        assertThat(smallCount).isEqualTo(1);
+        assertThat(largeCount).isEqualTo(smallCount);
+    }
+
+    @Test
+    @DisplayName("Should use a constant number of statements for applications by user, offer and status")
+    void filteredListsShouldNotIssueNPlusOneQueries() {
+        long byUser = statementsFor(10, () -> applicationService.getApplicationsByUserId(user.getId(), null, 100).getItems());
+        long byOffer = statementsFor(10, () -> applicationService.getApplicationsByCreditOfferId(creditOffer.getId(), null, 100).getItems());
+        long byStatus = statementsFor(10, () -> applicationService.getApplicationsByStatus(ApplicationStatus.PENDING, null, 100).getItems());
+
+        assertThat(byUser).isEqualTo(1);
+        assertThat(byOffer).isEqualTo(1);
+        assertThat(byStatus).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should walk every application page by page with one statement per page")
+    void pagesShouldFollowTheCursorWithoutGapsOrDuplicates() {
+        statementsFor(5, () -> applicationService.getAllApplications(null, 100).getItems());
+        statistics.clear();
+
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        Long cursor = null;
+        do {
+            CursorPage<ApplicationDto> page = applicationService.getAllApplications(cursor, 3);
+            page.getItems().forEach(application -> seen.add(application.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(10).doesNotHaveDuplicates().isSorted();
+        assertThat(pages).isEqualTo(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+
+    private long statementsFor(int count, Supplier<List<ApplicationDto>> query) {
+        // Every application points to a different user or a different offer, so lazy loading would add queries
+        for (int i = 0; i < count; i++) {
+            User applicant = entityManager.persist(newUser(++sequence));
+            CreditOffer offer = entityManager.persist(newCreditOffer());
+            entityManager.persist(newApplication(applicant, creditOffer));
+            entityManager.persist(newApplication(user, offer));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ApplicationDto> applications = query.get();
+
+        assertThat(applications).isNotEmpty();
+        assertThat(applications).allSatisfy(application -> {
+            assertThat(application.getUserFullName()).startsWith("User").endsWith(" Test");
+            assertThat(application.getCreditOfferDescription()).isEqualTo("Personal loan");
+        });
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Application newApplication(User applicant, CreditOffer offer) {
+        return Application.builder()
+                .user(applicant)
+                .creditOffer(offer)
+                .status(ApplicationStatus.PENDING)
+                .build();
+    }
+
+    private User newUser(int index) {
+        return User.builder()
+                .firstName("User" + index)
+                .lastName("Test")
+                .email("user" + index + "@example.com")
+                .phone("+1234567890")
+                .documentNumber("DOC" + index)
+                .build();
+    }
+
+    private CreditOffer newCreditOffer() {
+        return CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan")
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.ApplicationDto;
+import com.prestek.people.model.Application;
+import com.prestek.people.model.Application.ApplicationStatus;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.ApplicationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for application status transitions: allowed moves,
+ * rejected moves and the status guarded update under concurrent changes
+ */
+@DataJpaTest
+@Import(ApplicationService.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("Application Status Transition Tests")
+class ApplicationStatusTransitionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private Long applicationId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .documentNumber("12345678")
+                .build());
+        CreditOffer creditOffer = entityManager.persist(CreditOffer.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity("Banco Nacional")
+                .description("Personal loan")
+                .isActive(true)
+                .build());
+        applicationId = entityManager.persist(Application.builder()
+                .user(user)
+                .creditOffer(creditOffer)
+                .status(ApplicationStatus.PENDING)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should move a pending application to review with one guarded update and one read")
+    void shouldMovePendingApplicationToReview() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ApplicationDto result = applicationService
+                .updateApplicationStatus(applicationId, ApplicationStatus.UNDER_REVIEW, "Checking documents")
+                .orElseThrow();
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(result.getStatus()).isEqualTo(ApplicationStatus.UNDER_REVIEW);
+        assertThat(result.getReviewDate()).isNotNull();
+        assertThat(result.getUserFullName()).isEqualTo("John Doe");
+
+        entityManager.clear();
+        Application stored = entityManager.find(Application.class, applicationId);
+        assertThat(stored.getStatus()).isEqualTo(ApplicationStatus.UNDER_REVIEW);
+        assertThat(stored.getNotes()).isEqualTo("Checking documents");
+        assertThat(stored.getReviewDate()).isNotNull();
+        assertThat(stored.getUpdatedAt()).isCloseTo(result.getUpdatedAt(), within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    @DisplayName("Should store the notes as rejection reason when rejecting")
+    void shouldStoreRejectionReason() {
+        applicationService.updateApplicationStatus(applicationId, ApplicationStatus.REJECTED, "Income too low");
+
+        entityManager.clear();
+        Application stored = entityManager.find(Application.class, applicationId);
+        assertThat(stored.getStatus()).isEqualTo(ApplicationStatus.REJECTED);
+        assertThat(stored.getRejectionReason()).isEqualTo("Income too low");
+        assertThat(stored.getApprovalDate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse to leave a final status")
+    void shouldRefuseTransitionFromFinalStatus() {
+        applicationService.updateApplicationStatus(applicationId, ApplicationStatus.APPROVED, "Approved");
+        entityManager.clear();
+
+        assertThatThrownBy(() -> applicationService.updateApplicationStatus(applicationId, ApplicationStatus.PENDING, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("from APPROVED to PENDING");
+
+        entityManager.clear();
+        assertThat(entityManager.find(Application.class, applicationId).getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should not overwrite a status changed since it was read")
+    void guardedUpdateShouldMissWhenStatusChanged() {
+        applicationService.updateApplicationStatus(applicationId, ApplicationStatus.APPROVED, "Approved");
+
+        // A reviewer who still saw the application as PENDING tries to reject it
+        int updated = applicationRepository.updateStatusIfCurrent(applicationId, List.of(ApplicationStatus.PENDING),
+                ApplicationStatus.REJECTED, "Rejected", null, null, "Rejected", LocalDateTime.now());
+
+        assertThat(updated).isZero();
+        entityManager.clear();
+        assertThat(entityManager.find(Application.class, applicationId).getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should keep the review date when deciding a reviewed application")
+    void shouldKeepReviewDateWhenDeciding() {
+        LocalDateTime reviewDate = applicationService
+                .updateApplicationStatus(applicationId, ApplicationStatus.UNDER_REVIEW, "Checking documents")
+                .orElseThrow().getReviewDate();
+
+        ApplicationDto result = applicationService
+                .updateApplicationStatus(applicationId, ApplicationStatus.APPROVED, "Approved")
+                .orElseThrow();
+
+        assertThat(result.getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+        assertThat(result.getApprovalDate()).isNotNull();
+        assertThat(result.getReviewDate()).isCloseTo(reviewDate, within(1, ChronoUnit.MILLIS));
+        assertThat(result.getNotes()).isEqualTo("Approved");
+    }
+
+    @Test
+    @DisplayName("Should return empty when the application does not exist")
+    void shouldReturnEmptyForUnknownApplication() {
+        assertThat(applicationService.updateApplicationStatus(999L, ApplicationStatus.APPROVED, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only allow transitions out of pending and under review")
+    void shouldDefineAllowedTransitions() {
+        assertThat(ApplicationStatus.PENDING.canTransitionTo(ApplicationStatus.UNDER_REVIEW)).isTrue();
+        assertThat(ApplicationStatus.PENDING.canTransitionTo(ApplicationStatus.APPROVED)).isTrue();
+        assertThat(ApplicationStatus.PENDING.canTransitionTo(ApplicationStatus.PENDING)).isFalse();
+        assertThat(ApplicationStatus.UNDER_REVIEW.canTransitionTo(ApplicationStatus.CANCELLED)).isTrue();
+        assertThat(ApplicationStatus.UNDER_REVIEW.canTransitionTo(ApplicationStatus.PENDING)).isFalse();
+        assertThat(ApplicationStatus.REJECTED.canTransitionTo(ApplicationStatus.APPROVED)).isFalse();
+        assertThat(ApplicationStatus.CANCELLED.canTransitionTo(ApplicationStatus.UNDER_REVIEW)).isFalse();
+        assertThat(ApplicationStatus.APPROVED.allowedPredecessors())
+                .containsExactlyInAnyOrder(ApplicationStatus.PENDING, ApplicationStatus.UNDER_REVIEW);
+        assertThat(ApplicationStatus.PENDING.allowedPredecessors()).isEmpty();
+    }
+}
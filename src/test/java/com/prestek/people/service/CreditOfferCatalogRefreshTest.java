@@ -0,0 +1,98 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.repository.CreditOfferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests verifying that the active credit offer catalog is rebuilt
+ * when offer changes commit and is served without querying the database.
+ * Runs outside the test-managed transaction so the changes actually commit
+ */
+@DataJpaTest
+@Import({CreditOfferService.class, ActiveCreditOfferCatalog.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@DisplayName("Active Credit Offer Catalog Refresh Tests")
+class CreditOfferCatalogRefreshTest {
+
+    @Autowired
+    private CreditOfferService creditOfferService;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private ActiveCreditOfferCatalog catalog;
+
+    @AfterEach
+    void tearDown() {
+        creditOfferRepository.deleteAll();
+        catalog.invalidate();
+    }
+
+    @Test
+    @DisplayName("Should show created, deactivated and deleted offers once the change commits")
+    void shouldRebuildCatalogAfterCommit() {
+        CreditOfferDto first = creditOfferService.createCreditOffer(newOffer("Banco Nacional"));
+        CreditOfferDto second = creditOfferService.createCreditOffer(newOffer("Banco Popular"));
+        assertThat(activeIds()).containsExactly(first.getId(), second.getId());
+
+        creditOfferService.deactivateCreditOffer(first.getId());
+        assertThat(activeIds()).containsExactly(second.getId());
+
+        creditOfferService.deleteCreditOffer(second.getId());
+        assertThat(activeIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve active offers from the snapshot without reading the database")
+    void shouldServeFromSnapshot() {
+        CreditOfferDto created = creditOfferService.createCreditOffer(newOffer("Banco Nacional"));
+
+        // A row written behind the service's back is not visible until the next committed change
+        creditOfferRepository.deleteAll();
+
+        assertThat(activeIds()).containsExactly(created.getId());
+    }
+
+    @Test
+    @DisplayName("Should not publish changes from a transaction that rolls back")
+    @Transactional
+    void shouldIgnoreRolledBackChanges() {
+        creditOfferService.createCreditOffer(newOffer("Banco Nacional"));
+
+        assertThat(catalog.current()).isNull();
+    }
+
+    private List<Long> activeIds() {
+        return creditOfferService.getActiveCreditOffers(null, 100).getItems().stream()
+                .map(CreditOfferDto::getId)
+                .toList();
+    }
+
+    private CreditOfferDto newOffer(String financialEntity) {
+        return CreditOfferDto.builder()
+                .amount(new BigDecimal("50000.00"))
+                .interestRate(new BigDecimal("12.50"))
+                .termMonths(24)
+                .financialEntity(financialEntity)
+                .description("Personal loan")
+                .isActive(true)
+                .build();
+    }
+}
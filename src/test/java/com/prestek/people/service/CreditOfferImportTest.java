@@ -0,0 +1,135 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CreditOfferImportResultDto;
+import com.prestek.people.dto.CreditOfferImportResultDto.RowError;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.repository.CreditOfferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the streaming credit offer CSV import.
+ * Runs outside the test-managed transaction so each chunk actually commits
+ */
+@DataJpaTest
+@Import({CreditOfferImportService.class, CreditOfferService.class, ActiveCreditOfferCatalog.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "credit-offers.import.chunk-size=2",
+        "credit-offers.import.max-errors=3"
+})
+@DisplayName("Credit Offer CSV Import Tests")
+class CreditOfferImportTest {
+
+    private static final String HEADER = "amount,interestRate,termMonths,financialEntity,description,requirements,isActive\n";
+
+    @Autowired
+    private CreditOfferImportService creditOfferImportService;
+
+    @Autowired
+    private CreditOfferService creditOfferService;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private ActiveCreditOfferCatalog catalog;
+
+    @AfterEach
+    void tearDown() {
+        creditOfferRepository.deleteAll();
+        catalog.invalidate();
+    }
+
+    @Test
+    @DisplayName("Should insert valid rows, report invalid ones and refresh the active catalog")
+    void shouldImportValidRowsAndReportErrors() throws IOException {
+        String csv = HEADER
+                + "50000000,18.5,36,Banco Nacional,\"Libre inversión, tasa fija\",,true\n"
+                + "abc,18.5,36,Banco Nacional,,,\n"
+                + "\n"
+                + "20000000,12,24,Banco Popular,,,false\n"
+                + "10000000,15,0,Banco Popular,,,\n"
+                + "30000000,14.25,60,Banco Agrario\n";
+
+        CreditOfferImportResultDto result = creditOfferImportService.importCreditOffers(stream(csv));
+
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(2L, 4L);
+        assertThat(result.getErrors()).extracting(RowError::getMessage)
+                .containsExactly("amount must be a number", "termMonths must be greater than zero");
+        assertThat(result.isErrorsTruncated()).isFalse();
+
+        assertThat(creditOfferRepository.findAll()).extracting(CreditOffer::getFinancialEntity)
+                .containsExactlyInAnyOrder("Banco Nacional", "Banco Popular", "Banco Agrario");
+        assertThat(creditOfferService.getActiveCreditOffers(null, 10).getItems())
+                .extracting(CreditOfferDto::getFinancialEntity)
+                .containsExactly("Banco Nacional", "Banco Agrario");
+        assertThat(catalog.current().offers().get(0).getDescription()).isEqualTo("Libre inversión, tasa fija");
+    }
+
+    @Test
+    @DisplayName("Should reject only the rows the database refuses")
+    void shouldRejectOnlyTheFailingRows() throws IOException {
+        String csv = HEADER
+                + "1000,10,12,Banco A\n"
+                + "2000,10,12,Banco B\n"
+                + "1e40,10,12,Banco C\n"
+                + "4000,10,12,Banco D\n"
+                + "5000,10,12,Banco E\n";
+
+        CreditOfferImportResultDto result = creditOfferImportService.importCreditOffers(stream(csv));
+
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(3L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Row could not be stored");
+        assertThat(creditOfferRepository.findAll()).extracting(CreditOffer::getFinancialEntity)
+                .containsExactlyInAnyOrder("Banco A", "Banco B", "Banco D", "Banco E");
+    }
+
+    @Test
+    @DisplayName("Should cap the reported errors and flag the truncation")
+    void shouldTruncateErrors() throws IOException {
+        String csv = HEADER + ",,,\n".repeat(5);
+
+        CreditOfferImportResultDto result = creditOfferImportService.importCreditOffers(stream(csv));
+
+        assertThat(result.getRejected()).isEqualTo(5);
+        assertThat(result.getErrors()).hasSize(3);
+        assertThat(result.isErrorsTruncated()).isTrue();
+        assertThat(creditOfferRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a header without the required columns")
+    void shouldRejectMissingColumns() {
+        assertThatThrownBy(() -> creditOfferImportService.importCreditOffers(stream("amount,interestRate,financialEntity\n1000,10,Banco\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("termMonths");
+        assertThatThrownBy(() -> creditOfferImportService.importCreditOffers(stream("")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,143 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.CreditOfferSearchCriteria;
+import com.prestek.people.dto.CursorPage;
+import com.prestek.people.model.CreditOffer;
+import com.prestek.people.repository.CreditOfferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the multi-criteria credit offer search and its composite indexes
+ */
+@DataJpaTest
+@Import({CreditOfferService.class, ActiveCreditOfferCatalog.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@DisplayName("Credit Offer Search Tests")
+class CreditOfferSearchTest {
+
+    @Autowired
+    private CreditOfferService creditOfferService;
+
+    @Autowired
+    private CreditOfferRepository creditOfferRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CreditOffer nationalShort;
+    private CreditOffer nationalLong;
+    private CreditOffer nationalInactive;
+    private CreditOffer popularLong;
+
+    @BeforeEach
+    void setUp() {
+        nationalShort = creditOfferRepository.save(offer("Banco Nacional", "5000000", "14.5", 12, true));
+        nationalLong = creditOfferRepository.save(offer("Banco Nacional", "20000000", "16.0", 48, true));
+        nationalInactive = creditOfferRepository.save(offer("Banco Nacional", "15000000", "12.0", 36, false));
+        popularLong = creditOfferRepository.save(offer("Banco Popular", "18000000", "13.0", 60, true));
+        creditOfferRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should combine every filter in one query")
+    void shouldCombineFilters() {
+        CreditOfferSearchCriteria criteria = CreditOfferSearchCriteria.builder()
+                .minAmount(new BigDecimal("10000000"))
+                .maxAmount(new BigDecimal("25000000"))
+                .maxInterestRate(new BigDecimal("16.0"))
+                .minTermMonths(24)
+                .maxTermMonths(48)
+                .financialEntity("Banco Nacional")
+                .isActive(true)
+                .build();
+
+        CursorPage<CreditOfferDto> page = creditOfferService.searchCreditOffers(criteria, null, 10);
+
+        assertThat(page.getItems()).extracting(CreditOfferDto::getId).containsExactly(nationalLong.getId());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return every offer in id order when no filter is given")
+    void shouldPageWithoutFilters() {
+        CreditOfferSearchCriteria criteria = new CreditOfferSearchCriteria();
+
+        CursorPage<CreditOfferDto> first = creditOfferService.searchCreditOffers(criteria, null, 3);
+        CursorPage<CreditOfferDto> second = creditOfferService.searchCreditOffers(criteria, first.getNextCursor(), 3);
+
+        assertThat(first.getItems()).extracting(CreditOfferDto::getId)
+                .containsExactly(nationalShort.getId(), nationalLong.getId(), nationalInactive.getId());
+        assertThat(second.getItems()).extracting(CreditOfferDto::getId).containsExactly(popularLong.getId());
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should filter by active flag and maximum interest rate only")
+    void shouldFilterByPartialCriteria() {
+        CreditOfferSearchCriteria criteria = CreditOfferSearchCriteria.builder()
+                .maxInterestRate(new BigDecimal("14.5"))
+                .isActive(true)
+                .build();
+
+        CursorPage<CreditOfferDto> page = creditOfferService.searchCreditOffers(criteria, null, 10);
+
+        assertThat(page.getItems()).extracting(CreditOfferDto::getId)
+                .containsExactly(nationalShort.getId(), popularLong.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a minimum greater than its maximum")
+    void shouldRejectInvertedRanges() {
+        CreditOfferSearchCriteria amounts = CreditOfferSearchCriteria.builder()
+                .minAmount(new BigDecimal("20000000"))
+                .maxAmount(new BigDecimal("10000000"))
+                .build();
+        CreditOfferSearchCriteria terms = CreditOfferSearchCriteria.builder()
+                .minTermMonths(60)
+                .maxTermMonths(12)
+                .build();
+
+        assertThatThrownBy(() -> creditOfferService.searchCreditOffers(amounts, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> creditOfferService.searchCreditOffers(terms, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should create the composite search indexes")
+    void shouldCreateCompositeIndexes() {
+        @SuppressWarnings("unchecked")
+        List<String> indexes = entityManager.createNativeQuery(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(TABLE_NAME) = 'credit_offers'")
+                .getResultList();
+
+        assertThat(indexes).contains(
+                "idx_credit_offers_active_entity_amount",
+                "idx_credit_offers_active_amount_rate",
+                "idx_credit_offers_active_rate_term");
+    }
+
+    private CreditOffer offer(String financialEntity, String amount, String interestRate, int termMonths, boolean active) {
+        return CreditOffer.builder()
+                .financialEntity(financialEntity)
+                .amount(new BigDecimal(amount))
+                .interestRate(new BigDecimal(interestRate))
+                .termMonths(termMonths)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.prestek.people.service;
+
+import com.prestek.people.config.ClerkPrincipal;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.UsersChangedEvent.Change;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for resolving the caller's token to a user: linking the subject by the
+ * email claim, answering known subjects from memory and forgetting deleted users.
+ * Runs outside the test-managed transaction so links actually commit
+ */
+@DataJpaTest
+@Import({CurrentUserResolver.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("Current User Resolver Tests")
+class CurrentUserResolverTest {
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .firstName("Ana")
+                .lastName("Lopez")
+                .email("ana@example.com")
+                .phone("+1000000000")
+                .documentNumber("DOC-1")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should link the subject by email once and then resolve it without queries")
+    void shouldLinkSubjectAndResolveFromMemory() {
+        Authentication caller = caller("user_123", "ana@example.com");
+
+        assertThat(currentUserResolver.resolveUserId(caller)).contains(user.getId());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getAuthSubject()).isEqualTo("user_123");
+
+        Statistics statistics = statistics();
+        assertThat(currentUserResolver.resolveUserId(caller)).contains(user.getId());
+        assertThat(currentUserResolver.resolveUserId(caller("user_123", null))).contains(user.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache a subject without a user so it links after signup")
+    void shouldNotCacheUnlinkedSubject() {
+        assertThat(currentUserResolver.resolveUserId(caller("user_456", "new@example.com"))).isEmpty();
+
+        User signedUp = userRepository.save(User.builder()
+                .firstName("New")
+                .lastName("User")
+                .email("new@example.com")
+                .phone("+1000000001")
+                .documentNumber("DOC-2")
+                .build());
+
+        assertThat(currentUserResolver.resolveUserId(caller("user_456", "new@example.com"))).contains(signedUp.getId());
+    }
+
+    @Test
+    @DisplayName("Should not link a user that is already linked to another subject")
+    void shouldNotRelinkLinkedUser() {
+        currentUserResolver.resolveUserId(caller("user_123", "ana@example.com"));
+
+        assertThat(currentUserResolver.resolveUserId(caller("user_999", "ana@example.com"))).isEmpty();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getAuthSubject()).isEqualTo("user_123");
+    }
+
+    @Test
+    @DisplayName("Should forget the subject of a deleted user")
+    void shouldForgetDeletedUser() {
+        currentUserResolver.resolveUserId(caller("user_123", "ana@example.com"));
+        userRepository.deleteAll();
+
+        currentUserResolver.onUsersChanged(UsersChangedEvent.of(Change.DELETED, user.getId(), "ana@example.com", "DOC-1"));
+
+        assertThat(currentUserResolver.resolveUserId(caller("user_123", "ana@example.com"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not resolve requests without a Clerk principal")
+    void shouldIgnoreOtherPrincipals() {
+        assertThat(currentUserResolver.resolveUserId(null)).isEmpty();
+        assertThat(currentUserResolver.resolveUserId(new UsernamePasswordAuthenticationToken("user_123", null, List.of()))).isEmpty();
+    }
+
+    private Authentication caller(String subject, String email) {
+        return new UsernamePasswordAuthenticationToken(new ClerkPrincipal(subject, email), null, List.of());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,124 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.CreditOfferDto;
+import com.prestek.people.dto.OfferEvaluationDto;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OfferEligibilityService pricing and ranking over a catalog snapshot
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OfferEligibilityService Unit Tests")
+class OfferEligibilityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CreditOfferService creditOfferService;
+
+    @InjectMocks
+    private OfferEligibilityService offerEligibilityService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(offerEligibilityService, "maxDebtToIncome", 0.4);
+        ReflectionTestUtils.setField(offerEligibilityService, "parallelThreshold", 50000);
+
+        ActiveCreditOfferCatalog catalog = new ActiveCreditOfferCatalog(new SimpleMeterRegistry());
+        catalog.install(catalog.nextGeneration(), List.of(
+                offer(1L, "12000", "12", 12),
+                offer(2L, "6000", "0", 12),
+                offer(3L, "24000", "12", 60),
+                offer(4L, "3000", "12", 6)));
+        lenient().when(creditOfferService.getActiveOffersSnapshot()).thenReturn(catalog.current());
+    }
+
+    @Test
+    @DisplayName("Should rank eligible offers first, each group by total cost")
+    void shouldRankEligibleOffersFirst() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(5000.0, 1000.0)));
+
+        List<OfferEvaluationDto> ranked = offerEligibilityService.rankOffersForUser(1L, 10).orElseThrow();
+
+        assertThat(ranked).extracting(OfferEvaluationDto::getCreditOfferId).containsExactly(4L, 2L, 3L, 1L);
+        assertThat(ranked).extracting(OfferEvaluationDto::getEligible).containsExactly(true, true, true, false);
+        assertThat(ranked).extracting(OfferEvaluationDto::getRank).containsExactly(1, 2, 3, 4);
+
+        OfferEvaluationDto interestFree = ranked.get(1);
+        assertThat(interestFree.getMonthlyInstallment()).isEqualByComparingTo("500.00");
+        assertThat(interestFree.getTotalCost()).isEqualByComparingTo("6000.00");
+        assertThat(interestFree.getTotalInterest()).isEqualByComparingTo("0.00");
+        assertThat(interestFree.getDebtToIncomeRatio()).isEqualByComparingTo("0.3000");
+
+        OfferEvaluationDto ineligible = ranked.get(3);
+        assertThat(ineligible.getMonthlyInstallment()).isEqualByComparingTo("1066.19");
+        assertThat(ineligible.getDebtToIncomeRatio()).isEqualByComparingTo("0.4132");
+    }
+
+    @Test
+    @DisplayName("Should stop at the limit and give the same ranking when evaluated in parallel")
+    void shouldHonourLimitInParallel() {
+        ReflectionTestUtils.setField(offerEligibilityService, "parallelThreshold", 1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(5000.0, 1000.0)));
+
+        List<OfferEvaluationDto> ranked = offerEligibilityService.rankOffersForUser(1L, 2).orElseThrow();
+
+        assertThat(ranked).extracting(OfferEvaluationDto::getCreditOfferId).containsExactly(4L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should mark every offer ineligible when the user has no income")
+    void shouldRejectUsersWithoutIncome() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(null, null)));
+
+        List<OfferEvaluationDto> ranked = offerEligibilityService.rankOffersForUser(1L, 10).orElseThrow();
+
+        assertThat(ranked).extracting(OfferEvaluationDto::getCreditOfferId).containsExactly(4L, 2L, 1L, 3L);
+        assertThat(ranked).allSatisfy(evaluation -> {
+            assertThat(evaluation.getEligible()).isFalse();
+            assertThat(evaluation.getDebtToIncomeRatio()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should return empty when the user does not exist")
+    void shouldReturnEmptyForUnknownUser() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThat(offerEligibilityService.rankOffersForUser(99L, 10)).isEmpty();
+        verifyNoInteractions(creditOfferService);
+    }
+
+    private User user(Double monthlyIncome, Double monthlyExpenses) {
+        return User.builder().id(1L).monthlyIncome(monthlyIncome).monthlyExpenses(monthlyExpenses).build();
+    }
+
+    private CreditOfferDto offer(Long id, String amount, String interestRate, int termMonths) {
+        return CreditOfferDto.builder()
+                .id(id)
+                .financialEntity("Banco Nacional")
+                .amount(new BigDecimal(amount))
+                .interestRate(new BigDecimal(interestRate))
+                .termMonths(termMonths)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.UserImportResultDto;
+import com.prestek.people.dto.UserImportResultDto.Outcome;
+import com.prestek.people.model.User;
+import com.prestek.people.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the bulk user import: duplicates in the database and in the
+ * upload, per-user results and set-based duplicate queries per chunk.
+ * Runs outside the test-managed transaction so each chunk actually commits
+ */
+@DataJpaTest
+@Import({UserImportService.class, UserKeyFilter.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "users.import.chunk-size=2"
+})
+@DisplayName("User Import Tests")
+class UserImportTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserKeyFilter userKeyFilter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder()
+                .firstName("Existing")
+                .lastName("User")
+                .email("existing@example.com")
+                .phone("+1000000000")
+                .documentNumber("DOC-EXISTING")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create new users and report duplicates and invalid users in upload order")
+    void shouldImportAndReportEveryUser() throws IOException {
+        String json = "[" + String.join(",",
+                user("ana@example.com", "DOC-1"),
+                user("existing@example.com", "DOC-2"),
+                user("ana@example.com", "DOC-3"),
+                "{\"firstName\":\"No\",\"lastName\":\"Phone\",\"email\":\"nophone@example.com\",\"documentNumber\":\"DOC-4\"}",
+                user("luis@example.com", "DOC-EXISTING"),
+                user("marta@example.com", "DOC-1"),
+                user("pablo@example.com", "DOC-5")) + "]";
+
+        List<UserImportResultDto> results = userImportService.importUsers(stream(json));
+
+        assertThat(results).extracting(UserImportResultDto::getIndex).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(results).extracting(UserImportResultDto::getOutcome).containsExactly(
+                Outcome.CREATED, Outcome.DUPLICATE_EMAIL, Outcome.DUPLICATE_EMAIL, Outcome.INVALID,
+                Outcome.DUPLICATE_DOCUMENT, Outcome.DUPLICATE_DOCUMENT, Outcome.CREATED);
+        assertThat(results.get(1).getMessage()).isEqualTo("Email already exists");
+        assertThat(results.get(2).getMessage()).isEqualTo("Email repeated in the file");
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(userRepository.findByEmail("pablo@example.com")).get()
+                .extracting(User::getId).isEqualTo(results.get(6).getId());
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reject over-long fields up front and not hold the keys of a rejected user against later users")
+    void shouldReleaseKeysOfUsersNotCreated() throws IOException {
+        String tooLongPhone = "+" + "1".repeat(300);
+        String json = "[" + String.join(",",
+                user("ana@example.com", "DOC-1"),
+                user("marta@example.com", "DOC-1"),
+                user("luis@example.com", "DOC-2").replace("+1234567890", tooLongPhone),
+                user("pablo@example.com", "DOC-3"),
+                user("marta@example.com", "DOC-4"),
+                user("luis@example.com", "DOC-2")) + "]";
+
+        List<UserImportResultDto> results = userImportService.importUsers(stream(json));
+
+        assertThat(results).extracting(UserImportResultDto::getOutcome).containsExactly(
+                Outcome.CREATED, Outcome.DUPLICATE_DOCUMENT, Outcome.INVALID,
+                Outcome.CREATED, Outcome.CREATED, Outcome.CREATED);
+        assertThat(results.get(2).getMessage()).isEqualTo("Text fields must be at most 255 characters");
+        assertThat(userRepository.findByEmail("marta@example.com")).get()
+                .extracting(User::getDocumentNumber).isEqualTo("DOC-4");
+        assertThat(userRepository.findByEmail("luis@example.com")).isPresent();
+        assertThat(userRepository.findByEmail("pablo@example.com")).isPresent();
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Should store the rest of a rejected chunk and report a user stored meanwhile as a duplicate")
+    void shouldRetryRejectedChunkUserByUser() throws IOException {
+        // An empty filter misses the stored user, as it would for a signup committed after the duplicate check
+        userKeyFilter.install(userKeyFilter.beginRebuild(0));
+        String json = "[" + String.join(",",
+                user("existing@example.com", "DOC-1"),
+                user("pablo@example.com", "DOC-2"),
+                user("ana@example.com", "DOC-EXISTING")) + "]";
+
+        List<UserImportResultDto> results = userImportService.importUsers(stream(json));
+
+        assertThat(results).extracting(UserImportResultDto::getOutcome).containsExactly(
+                Outcome.DUPLICATE_EMAIL, Outcome.CREATED, Outcome.DUPLICATE_DOCUMENT);
+        assertThat(results.get(0).getMessage()).isEqualTo("Email already exists");
+        assertThat(userRepository.findByEmail("pablo@example.com")).get()
+                .extracting(User::getId).isEqualTo(results.get(1).getId());
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should check duplicates with two queries per chunk whatever the chunk size")
+    void shouldCheckDuplicatesPerChunk() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String ndjson = IntStream.range(0, 6)
+                .mapToObj(i -> user("user" + i + "@example.com", "DOC-" + i))
+                .collect(Collectors.joining("\n"));
+        statistics.clear();
+
+        List<UserImportResultDto> results = userImportService.importUsers(stream(ndjson));
+
+        assertThat(results).extracting(UserImportResultDto::getOutcome).containsOnly(Outcome.CREATED).hasSize(6);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(6);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should keep the users read before malformed JSON and stop there")
+    void shouldStopAtMalformedJson() throws IOException {
+        String json = "[" + user("ana@example.com", "DOC-1") + ",{\"email\": ]";
+
+        List<UserImportResultDto> results = userImportService.importUsers(stream(json));
+
+        assertThat(results).extracting(UserImportResultDto::getOutcome).containsExactly(Outcome.CREATED, Outcome.INVALID);
+        assertThat(results.get(1).getMessage()).startsWith("Malformed JSON");
+        assertThat(userRepository.findByEmail("ana@example.com")).isPresent();
+    }
+
+    private String user(String email, String documentNumber) {
+        return "{\"firstName\":\"Test\",\"lastName\":\"User\",\"email\":\"" + email
+                + "\",\"phone\":\"+1234567890\",\"documentNumber\":\"" + documentNumber + "\",\"monthlyIncome\":5000.0}";
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
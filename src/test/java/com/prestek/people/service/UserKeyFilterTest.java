@@ -0,0 +1,135 @@
+package com.prestek.people.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the user key filter: no false negatives, a false positive rate close to
+ * the configured one, keys added during a rebuild, stale and outgrown filters and the exposed metrics
+ */
+@DisplayName("User Key Filter Tests")
+class UserKeyFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserKeyFilter userKeyFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userKeyFilter = new UserKeyFilter(meterRegistry, 10_000, 0.01, 0.1);
+    }
+
+    @Test
+    @DisplayName("Should report every key as possibly present until a filter is installed")
+    void shouldReportKeysAsPresentUntilInstalled() {
+        assertThat(userKeyFilter.mightContainEmail("anyone@example.com")).isTrue();
+        assertThat(userKeyFilter.mightContainDocumentNumber("DOC-ANY")).isTrue();
+        assertThat(meterRegistry.counter("users.key_filter.lookups", "result", "unavailable").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should never miss a stored key and keep false positives near the configured rate")
+    void shouldHaveNoFalseNegativesAndFewFalsePositives() {
+        UserKeyFilter.Bloom filter = userKeyFilter.beginRebuild(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com", "DOC-" + i);
+        }
+        userKeyFilter.install(filter);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(userKeyFilter.mightContainEmail("user" + i + "@example.com")).isTrue();
+            assertThat(userKeyFilter.mightContainDocumentNumber("DOC-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (userKeyFilter.mightContainEmail("user" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        // Emails and document numbers are hashed apart
+        assertThat(userKeyFilter.mightContainDocumentNumber("user1@example.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep keys added while a rebuild is reading the database")
+    void shouldKeepKeysAddedDuringRebuild() {
+        userKeyFilter.install(userKeyFilter.beginRebuild(0));
+        UserKeyFilter.Bloom rebuilt = userKeyFilter.beginRebuild(0);
+
+        userKeyFilter.add("late@example.com", "DOC-LATE");
+        assertThat(userKeyFilter.beginRebuild(0)).isNull();
+        userKeyFilter.install(rebuilt);
+
+        assertThat(userKeyFilter.mightContainEmail("late@example.com")).isTrue();
+        assertThat(userKeyFilter.mightContainDocumentNumber("DOC-LATE")).isTrue();
+        assertThat(userKeyFilter.beginRebuild(0)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should ask for a rebuild once deleted users pass the stale ratio")
+    void shouldAskForRebuildWhenStaleRatioIsPassed() {
+        UserKeyFilter.Bloom filter = userKeyFilter.beginRebuild(100);
+        for (int i = 0; i < 100; i++) {
+            filter.add("user" + i + "@example.com", "DOC-" + i);
+        }
+        userKeyFilter.install(filter);
+
+        assertThat(userKeyFilter.markRemoved(10)).isFalse();
+        assertThat(userKeyFilter.markRemoved(1)).isTrue();
+
+        // Deletions counted before a rebuild started are reflected once it is installed
+        UserKeyFilter.Bloom rebuilt = userKeyFilter.beginRebuild(89);
+        for (int i = 11; i < 100; i++) {
+            rebuilt.add("user" + i + "@example.com", "DOC-" + i);
+        }
+        userKeyFilter.install(rebuilt);
+        assertThat(userKeyFilter.markRemoved(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count a created user once and ask for a rebuild once the users outgrow the filter")
+    void shouldCountCreatedUsersOnceAndAskForRebuildWhenOutgrown() {
+        userKeyFilter = new UserKeyFilter(new SimpleMeterRegistry(), 4, 0.01, 0.5);
+        UserKeyFilter.Bloom filter = userKeyFilter.beginRebuild(2);
+        filter.add("user0@example.com", "DOC-0");
+        filter.add("user1@example.com", "DOC-1");
+        userKeyFilter.install(filter);
+
+        // Keys added before the insert are not counted, the committed insert counts the user
+        for (int i = 2; i < 4; i++) {
+            userKeyFilter.add("user" + i + "@example.com", "DOC-" + i);
+            assertThat(userKeyFilter.addCreated("user" + i + "@example.com", "DOC-" + i)).isFalse();
+        }
+        userKeyFilter.add("user4@example.com", "DOC-4");
+        assertThat(userKeyFilter.addCreated("user4@example.com", "DOC-4")).isTrue();
+
+        // Five users counted: two stale users stay under the ratio, three pass it
+        assertThat(userKeyFilter.markRemoved(2)).isFalse();
+        assertThat(userKeyFilter.markRemoved(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should expose lookups, the observed false positive rate and rebuild time")
+    void shouldExposeMetrics() {
+        UserKeyFilter.Bloom filter = userKeyFilter.beginRebuild(1);
+        filter.add("stored@example.com", "DOC-STORED");
+        userKeyFilter.install(filter);
+
+        userKeyFilter.mightContainEmail("stored@example.com");
+        userKeyFilter.mightContainEmail("probe-1@example.com");
+        userKeyFilter.mightContainEmail("probe-2@example.com");
+        userKeyFilter.mightContainEmail("probe-3@example.com");
+        userKeyFilter.recordFalsePositive();
+
+        assertThat(meterRegistry.counter("users.key_filter.lookups", "result", "definite_miss").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("users.key_filter.lookups", "result", "maybe_present").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.key_filter.false_positive_rate").gauge().value()).isEqualTo(0.25);
+        assertThat(meterRegistry.get("users.key_filter.expected_false_positive_rate").gauge().value()).isBetween(0.0, 0.01);
+        assertThat(meterRegistry.get("users.key_filter.rebuild").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the user lookup cache: cached misses expire sooner than cached users,
+ * invalidation and the hit ratio, load and eviction metrics
+ */
+@DisplayName("User Lookup Cache Tests")
+class UserLookupCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserLookupCache userLookupCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userLookupCache = new UserLookupCache(meterRegistry, 100, 60_000, 50);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should keep found users but reload cached misses after the negative TTL")
+    void shouldExpireCachedMissesSooner() throws InterruptedException {
+        userLookupCache.getById(1L, this::load);
+        userLookupCache.getById(999L, this::load);
+
+        Thread.sleep(100);
+        userLookupCache.getById(1L, this::load);
+        userLookupCache.getById(999L, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should reload invalidated ids and emails")
+    void shouldReloadInvalidatedEntries() {
+        userLookupCache.getById(1L, this::load);
+        userLookupCache.getByEmail("user1@example.com", email -> load(1L));
+
+        userLookupCache.invalidate(List.of(1L), List.of("user1@example.com"));
+        userLookupCache.getById(1L, this::load);
+        userLookupCache.getByEmail("user1@example.com", email -> load(1L));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should expose hit ratio, load latency and evictions per cache")
+    void shouldExposeMetrics() {
+        for (int i = 0; i < 4; i++) {
+            userLookupCache.getById(1L, this::load);
+        }
+
+        assertThat(meterRegistry.get("users.cache.hit_ratio").tag("cache", "users.by_id").gauge().value()).isEqualTo(0.75);
+        assertThat(meterRegistry.get("users.cache.load").tag("cache", "users.by_id").functionTimer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by_id").tag("result", "hit").functionCounter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "users.by_email").functionCounter().count()).isZero();
+    }
+
+    private Optional<UserDto> load(Long id) {
+        loads.incrementAndGet();
+        return id < 100 ? Optional.of(UserDto.builder().id(id).email("user" + id + "@example.com").build()) : Optional.empty();
+    }
+}
@@ -0,0 +1,124 @@
+package com.prestek.people.service;
+
+import com.prestek.people.dto.UserDto;
+import com.prestek.people.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for user creation against the real unique constraints:
+ * a new user costs a single insert and duplicates are reported by field.
+ * Also builds the user key filter from the stored users, one row per page.
+ * Runs outside the test-managed transaction so each creation actually commits
+ */
+@DataJpaTest
+@Import({UserService.class, UserKeyFilter.class, UserLookupCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "users.key-filter.rebuild-page-size=1"
+})
+@DisplayName("User Creation Constraint Tests")
+class UserServiceConstraintTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserKeyFilter userKeyFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        userService.createUser(user("existing@example.com", "DOC-EXISTING"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create a user with a single statement")
+    void shouldCreateUserWithSingleStatement() {
+        Statistics statistics = statistics();
+
+        UserDto created = userService.createUser(user("new@example.com", "DOC-NEW"));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report a duplicate email from the unique constraint")
+    void shouldReportDuplicateEmail() {
+        assertThatThrownBy(() -> userService.createUser(user("existing@example.com", "DOC-OTHER")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User with email already exists: existing@example.com");
+
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a duplicate document number from the unique constraint")
+    void shouldReportDuplicateDocumentNumber() {
+        assertThatThrownBy(() -> userService.createUser(user("other@example.com", "DOC-EXISTING")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User with document number already exists: DOC-EXISTING");
+
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should build the key filter from every stored user and answer misses without a query")
+    void shouldBuildKeyFilterFromStoredUsers() {
+        userService.createUser(user("second@example.com", "DOC-SECOND"));
+        userService.loadKeyFilter();
+        Statistics statistics = statistics();
+
+        assertThat(userService.getUserByEmail("existing@example.com")).isPresent();
+        assertThat(userService.getUserByEmail("second@example.com")).isPresent();
+        assertThat(userService.getUserByEmail("probe@example.com")).isEmpty();
+
+        assertThat(userKeyFilter.mightContainDocumentNumber("DOC-EXISTING")).isTrue();
+        assertThat(userKeyFilter.mightContainDocumentNumber("DOC-SECOND")).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static UserDto user(String email, String documentNumber) {
+        return UserDto.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .phone("+1000000000")
+                .documentNumber(documentNumber)
+                .build();
+    }
+}
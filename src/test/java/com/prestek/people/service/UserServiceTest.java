@@ -1,16 +1,25 @@
 package com.prestek.people.service;
 
+import com.prestek.people.dto.CursorPage;
 import com.prestek.people.dto.UserDto;
 import com.prestek.people.model.User;
 import com.prestek.people.repository.UserRepository;
+import com.prestek.people.service.UsersChangedEvent.Change;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -33,6 +42,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserKeyFilter userKeyFilter = new UserKeyFilter(new SimpleMeterRegistry(), 1000, 0.01, 0.1);
+
+    @Spy
+    private UserLookupCache userLookupCache = new UserLookupCache(new SimpleMeterRegistry(), 100, 60_000, 60_000);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -79,9 +97,7 @@ class UserServiceTest {
     @DisplayName("Should create user successfully with valid data")
     void shouldCreateUserSuccessfully() {
         // Given
-        when(userRepository.existsByEmail(validUserDto.getEmail())).thenReturn(false);
-        when(userRepository.existsByDocumentNumber(validUserDto.getDocumentNumber())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(validUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(validUser);
 
         // When
         UserDto result = userService.createUser(validUserDto);
@@ -101,9 +117,7 @@ class UserServiceTest {
         assertThat(result.getCreatedAt()).isNotNull();
         assertThat(result.getUpdatedAt()).isNotNull();
 
-        verify(userRepository).existsByEmail(validUserDto.getEmail());
-        verify(userRepository).existsByDocumentNumber(validUserDto.getDocumentNumber());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -129,9 +143,7 @@ class UserServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(userRepository.existsByEmail(minimalUserDto.getEmail())).thenReturn(false);
-        when(userRepository.existsByDocumentNumber(minimalUserDto.getDocumentNumber())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(minimalUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(minimalUser);
 
         // When
         UserDto result = userService.createUser(minimalUserDto);
@@ -149,9 +161,7 @@ class UserServiceTest {
         assertThat(result.getCreditScore()).isNull();
         assertThat(result.getEmploymentStatus()).isNull();
 
-        verify(userRepository).existsByEmail(minimalUserDto.getEmail());
-        verify(userRepository).existsByDocumentNumber(minimalUserDto.getDocumentNumber());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     // ==========================================
@@ -166,19 +176,38 @@ class UserServiceTest {
         User user2 = createTestUser(2L, "Jane", "Smith", "jane.smith@example.com");
         List<User> users = Arrays.asList(user1, user2);
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findDtosByIdGreaterThan(0L, Limit.of(11))).thenReturn(users.stream().map(userService::convertToDto).toList());
 
         // When
-        List<UserDto> result = userService.getAllUsers();
+        CursorPage<UserDto> result = userService.getAllUsers(null, 10);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getFirstName()).isEqualTo("John");
-        assertThat(result.get(0).getEmail()).isEqualTo("john.doe@example.com");
-        assertThat(result.get(1).getFirstName()).isEqualTo("Jane");
-        assertThat(result.get(1).getEmail()).isEqualTo("jane.smith@example.com");
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getItems().get(0).getFirstName()).isEqualTo("John");
+        assertThat(result.getItems().get(0).getEmail()).isEqualTo("john.doe@example.com");
+        assertThat(result.getItems().get(1).getFirstName()).isEqualTo("Jane");
+        assertThat(result.getItems().get(1).getEmail()).isEqualTo("jane.smith@example.com");
+        assertThat(result.getNextCursor()).isNull();
+
+        verify(userRepository).findDtosByIdGreaterThan(0L, Limit.of(11));
+    }
 
-        verify(userRepository).findAll();
+    @Test
+    @DisplayName("Should return the next cursor when more users follow the page")
+    void shouldReturnNextCursorWhenMoreUsersExist() {
+        // Given
+        User user2 = createTestUser(2L, "Jane", "Smith", "jane.smith@example.com");
+        User user3 = createTestUser(3L, "Jim", "Beam", "jim.beam@example.com");
+        User user4 = createTestUser(4L, "Joan", "Arc", "joan.arc@example.com");
+
+        when(userRepository.findDtosByIdGreaterThan(1L, Limit.of(3))).thenReturn(Arrays.asList(user2, user3, user4).stream().map(userService::convertToDto).toList());
+
+        // When
+        CursorPage<UserDto> result = userService.getAllUsers(1L, 2);
+
+        // Then
+        assertThat(result.getItems()).extracting(UserDto::getId).containsExactly(2L, 3L);
+        assertThat(result.getNextCursor()).isEqualTo(3L);
     }
 
     @Test
@@ -247,56 +276,141 @@ class UserServiceTest {
         verify(userRepository).findByEmail("nonexistent@example.com");
     }
 
+    @Test
+    @DisplayName("Should answer repeated lookups by id and email from the cache, including misses")
+    void shouldCacheLookupsIncludingMisses() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(validUser));
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(validUser));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(userService.getUserById(1L)).isPresent();
+            assertThat(userService.getUserById(999L)).isEmpty();
+            assertThat(userService.getUserByEmail("john.doe@example.com")).isPresent();
+        }
+
+        // Then
+        verify(userRepository).findById(1L);
+        verify(userRepository).findById(999L);
+        verify(userRepository).findByEmail("john.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reload cached lookups once a change to the user commits")
+    void shouldReloadLookupsAfterCommittedChange() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(validUser));
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(validUser));
+        userService.getUserById(1L);
+        userService.getUserByEmail("john.doe@example.com");
+
+        // When
+        userService.onUsersChanged(UsersChangedEvent.of(Change.UPDATED, 1L, "john.doe@example.com", "12345678"));
+        userService.getUserById(1L);
+        userService.getUserByEmail("john.doe@example.com");
+
+        // Then
+        verify(userRepository, times(2)).findById(1L);
+        verify(userRepository, times(2)).findByEmail("john.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Should not query the database for an email the key filter rules out")
+    void shouldSkipDatabaseForEmailRuledOutByKeyFilter() {
+        // Given
+        UserKeyFilter.Bloom filter = userKeyFilter.beginRebuild(1);
+        filter.add("john.doe@example.com", "12345678");
+        userKeyFilter.install(filter);
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(validUser));
+
+        // When
+        Optional<UserDto> stored = userService.getUserByEmail("john.doe@example.com");
+        Optional<UserDto> probed = userService.getUserByEmail("nonexistent@example.com");
+
+        // Then
+        assertThat(stored).isPresent();
+        assertThat(probed).isEmpty();
+
+        verify(userRepository).findByEmail("john.doe@example.com");
+        verify(userRepository, never()).findByEmail("nonexistent@example.com");
+    }
+
     @Test
     @DisplayName("Should return empty list when no users exist")
     void shouldReturnEmptyListWhenNoUsersExist() {
         // Given
-        when(userRepository.findAll()).thenReturn(Arrays.asList());
+        when(userRepository.findDtosByIdGreaterThan(0L, Limit.of(11))).thenReturn(Arrays.asList());
 
         // When
-        List<UserDto> result = userService.getAllUsers();
+        CursorPage<UserDto> result = userService.getAllUsers(null, 10);
 
         // Then
-        assertThat(result).isEmpty();
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
 
-        verify(userRepository).findAll();
+        verify(userRepository).findDtosByIdGreaterThan(0L, Limit.of(11));
     }
 
     // ==========================================
     // 3. ERROR HANDLING TESTS
     // ==========================================
 
+    @Test
+    @DisplayName("Should add the keys of a created user to the key filter")
+    void shouldAddCreatedUserKeysToKeyFilter() {
+        // Given
+        userKeyFilter.install(userKeyFilter.beginRebuild(1));
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(validUser);
+
+        // When
+        userService.createUser(validUserDto);
+
+        // Then
+        assertThat(userKeyFilter.mightContainEmail("john.doe@example.com")).isTrue();
+        assertThat(userKeyFilter.mightContainDocumentNumber("12345678")).isTrue();
+
+        verify(eventPublisher).publishEvent(UsersChangedEvent.of(Change.CREATED, 1L, "john.doe@example.com", "12345678"));
+    }
+
     @Test
     @DisplayName("Should throw exception when creating user with duplicate email")
     void shouldThrowExceptionWhenCreatingUserWithDuplicateEmail() {
         // Given
-        when(userRepository.existsByEmail(validUserDto.getEmail())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL"));
 
         // When & Then
         assertThatThrownBy(() -> userService.createUser(validUserDto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("User with email already exists: " + validUserDto.getEmail());
 
-        verify(userRepository).existsByEmail(validUserDto.getEmail());
-        verify(userRepository, never()).existsByDocumentNumber(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
     @DisplayName("Should throw exception when creating user with duplicate document number")
     void shouldThrowExceptionWhenCreatingUserWithDuplicateDocumentNumber() {
         // Given
-        when(userRepository.existsByEmail(validUserDto.getEmail())).thenReturn(false);
-        when(userRepository.existsByDocumentNumber(validUserDto.getDocumentNumber())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("uk_users_document_number"));
 
         // When & Then
         assertThatThrownBy(() -> userService.createUser(validUserDto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("User with document number already exists: " + validUserDto.getDocumentNumber());
 
-        verify(userRepository).existsByEmail(validUserDto.getEmail());
-        verify(userRepository).existsByDocumentNumber(validUserDto.getDocumentNumber());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should rethrow integrity violations that are not duplicates")
+    void shouldRethrowOtherIntegrityViolations() {
+        // Given
+        DataIntegrityViolationException notNull = uniqueViolation("users_first_name_not_null");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(notNull);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(validUserDto)).isSameAs(notNull);
     }
 
     @Test
@@ -309,27 +423,21 @@ class UserServiceTest {
         assertThatThrownBy(() -> userService.createUser(nullUserDto))
                 .isInstanceOf(NullPointerException.class);
 
-        verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, never()).existsByDocumentNumber(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     @DisplayName("Should handle repository exceptions during user creation")
     void shouldHandleRepositoryExceptionsDuringUserCreation() {
         // Given
-        when(userRepository.existsByEmail(validUserDto.getEmail())).thenReturn(false);
-        when(userRepository.existsByDocumentNumber(validUserDto.getDocumentNumber())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("Database connection failed"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new RuntimeException("Database connection failed"));
 
         // When & Then
         assertThatThrownBy(() -> userService.createUser(validUserDto))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Database connection failed");
 
-        verify(userRepository).existsByEmail(validUserDto.getEmail());
-        verify(userRepository).existsByDocumentNumber(validUserDto.getDocumentNumber());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -350,14 +458,15 @@ class UserServiceTest {
     @DisplayName("Should handle repository exceptions during getAllUsers")
     void shouldHandleRepositoryExceptionsDuringGetAllUsers() {
         // Given
-        when(userRepository.findAll()).thenThrow(new RuntimeException("Database connection failed"));
+        when(userRepository.findDtosByIdGreaterThan(0L, Limit.of(11)))
+                .thenThrow(new RuntimeException("Database connection failed"));
 
         // When & Then
-        assertThatThrownBy(() -> userService.getAllUsers())
+        assertThatThrownBy(() -> userService.getAllUsers(null, 10))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Database connection failed");
 
-        verify(userRepository).findAll();
+        verify(userRepository).findDtosByIdGreaterThan(0L, Limit.of(11));
     }
 
     @Test
@@ -383,9 +492,7 @@ class UserServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(userRepository.existsByEmail(invalidEmailUserDto.getEmail())).thenReturn(false);
-        when(userRepository.existsByDocumentNumber(invalidEmailUserDto.getDocumentNumber())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(userWithInvalidEmail);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(userWithInvalidEmail);
 
         // When
         UserDto result = userService.createUser(invalidEmailUserDto);
@@ -395,9 +502,7 @@ class UserServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getEmail()).isEqualTo("invalid-email-format");
 
-        verify(userRepository).existsByEmail(invalidEmailUserDto.getEmail());
-        verify(userRepository).existsByDocumentNumber(invalidEmailUserDto.getDocumentNumber());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     // ==========================================
@@ -521,8 +626,7 @@ class UserServiceTest {
     @DisplayName("Should delete user successfully")
     void shouldDeleteUserSuccessfully() {
         // Given
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(validUser));
 
         // When
         boolean result = userService.deleteUser(1L);
@@ -530,15 +634,15 @@ class UserServiceTest {
         // Then
         assertThat(result).isTrue();
 
-        verify(userRepository).existsById(1L);
-        verify(userRepository).deleteById(1L);
+        verify(userRepository).delete(validUser);
+        verify(eventPublisher).publishEvent(UsersChangedEvent.of(Change.DELETED, 1L, "john.doe@example.com", "12345678"));
     }
 
     @Test
     @DisplayName("Should return false when deleting non-existent user")
     void shouldReturnFalseWhenDeletingNonExistentUser() {
         // Given
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When
         boolean result = userService.deleteUser(999L);
@@ -546,8 +650,8 @@ class UserServiceTest {
         // Then
         assertThat(result).isFalse();
 
-        verify(userRepository).existsById(999L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository).findById(999L);
+        verify(userRepository, never()).delete(any(User.class));
     }
 
     // ==========================================
@@ -566,4 +670,9 @@ class UserServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
     }
+
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("violation"), constraintName));
+    }
 }
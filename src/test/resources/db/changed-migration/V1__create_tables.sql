@@ -0,0 +1,2 @@
+-- Stands in for V1__create_tables.sql edited after it was applied
+CREATE TABLE IF NOT EXISTS ${schema}"users" ("id" bigint NOT NULL, PRIMARY KEY ("id"));